@@ -0,0 +1,55 @@
+package com.francids.escruta.backend.benchmarks;
+
+import com.francids.escruta.backend.services.Bm25DocumentReranker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Bm25RerankerBenchmark {
+    private static final String[] VOCABULARY = {
+            "notebook", "source", "summary", "vector", "index", "search", "model", "query", "answer", "document",
+            "postgres", "latency", "token", "embedding", "chunk", "context", "retrieval", "ranking", "score", "term",
+            "the", "of", "and", "to", "in", "is", "for", "with", "on", "that"
+    };
+
+    @Param({"30"})
+    private int candidates;
+
+    @Param({"500"})
+    private int tokensPerDocument;
+
+    private Bm25DocumentReranker reranker;
+    private Query query;
+    private List<Document> documents;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(candidates);
+        for (int d = 0; d < candidates; d++) {
+            StringBuilder text = new StringBuilder();
+            for (int t = 0; t < tokensPerDocument; t++) {
+                text.append(VOCABULARY[random.nextInt(VOCABULARY.length)])
+                        .append(t % 12 == 11 ?
+                                ". " :
+                                " ");
+            }
+            documents.add(new Document(text.toString()));
+        }
+        query = new Query("How does the retrieval ranking score a PG-1042 embedding chunk?");
+        reranker = new Bm25DocumentReranker(3, 0.5);
+    }
+
+    @Benchmark
+    public List<Document> rerank() {
+        return reranker.process(query, documents);
+    }
+}
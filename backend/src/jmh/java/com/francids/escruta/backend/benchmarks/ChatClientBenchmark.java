@@ -0,0 +1,121 @@
+package com.francids.escruta.backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChatClientBenchmark {
+    private final UUID notebookId = UUID.randomUUID();
+    private final String conversationId = UUID.randomUUID()
+            .toString();
+
+    private ChatModel chatModel;
+    private VectorStore vectorStore;
+    private InMemoryChatMemoryRepository chatMemoryRepository;
+    private ChatClient sharedChatClient;
+
+    @Setup
+    public void setup() {
+        chatModel = prompt -> new ChatResponse(List.of(new Generation(new AssistantMessage("answer"))));
+        vectorStore = new StubVectorStore(List.of(
+                new Document("first chunk", Map.of("sourceId", UUID.randomUUID().toString(), "title", "First")),
+                new Document("second chunk", Map.of("sourceId", UUID.randomUUID().toString(), "title", "Second"))
+        ));
+        chatMemoryRepository = new InMemoryChatMemoryRepository();
+
+        ChatMemory chatMemory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(10)
+                .build();
+        sharedChatClient = ChatClient.builder(chatModel)
+                .defaultAdvisors(
+                        MessageChatMemoryAdvisor.builder(chatMemory)
+                                .build(),
+                        QuestionAnswerAdvisor.builder(vectorStore)
+                                .searchRequest(SearchRequest.builder()
+                                        .topK(3)
+                                        .build())
+                                .build()
+                )
+                .build();
+    }
+
+    @Benchmark
+    public ChatResponse perRequestChatClient() {
+        ChatMemory chatMemory = MessageWindowChatMemory.builder()
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(10)
+                .build();
+        ChatClient chatClient = ChatClient.builder(chatModel)
+                .defaultAdvisors(
+                        MessageChatMemoryAdvisor.builder(chatMemory)
+                                .build(),
+                        QuestionAnswerAdvisor.builder(vectorStore)
+                                .searchRequest(SearchRequest.builder()
+                                        .topK(3)
+                                        .filterExpression(new Filter.Expression(
+                                                Filter.ExpressionType.EQ,
+                                                new Filter.Key("notebookId"),
+                                                new Filter.Value(notebookId.toString())
+                                        ))
+                                        .build())
+                                .build()
+                )
+                .build();
+
+        return chatClient.prompt()
+                .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId))
+                .user("What is this notebook about?")
+                .call()
+                .chatResponse();
+    }
+
+    @Benchmark
+    public ChatResponse sharedChatClient() {
+        return sharedChatClient.prompt()
+                .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId)
+                        .param(QuestionAnswerAdvisor.FILTER_EXPRESSION, "notebookId == '" + notebookId + "'"))
+                .user("What is this notebook about?")
+                .call()
+                .chatResponse();
+    }
+
+    private record StubVectorStore(List<Document> documents) implements VectorStore {
+        @Override
+        public void add(List<Document> documents) {
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            return documents;
+        }
+    }
+}
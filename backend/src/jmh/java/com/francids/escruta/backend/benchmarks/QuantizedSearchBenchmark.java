@@ -0,0 +1,336 @@
+package com.francids.escruta.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import com.pgvector.PGvector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.document.Document;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares notebook-scoped search on a real PostgreSQL database with pgvector: exact search, the full-precision HNSW
+ * index, and the halfvec and binary quantized indexes with full-precision rescoring. Point
+ * ESCRUTA_BENCHMARK_DATABASE_URL (plus _USERNAME and _PASSWORD) at a scratch database; each dataset is generated once
+ * into its own schema and reused by later runs. Latency is the JMH score, while index sizes, recall@k against exact
+ * search and the plan of the candidate query are printed for every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QuantizedSearchBenchmark {
+    private static final int CLUSTERS = 64;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final double ACCEPT_ALL = -1;
+
+    @Param({"exact", "float-hnsw", "halfvec", "binary"})
+    private String mode;
+
+    @Param({"50000"})
+    private int vectors;
+
+    @Param({"1", "50"})
+    private int notebooks;
+
+    @Param({"768"})
+    private int dimensions;
+
+    @Param({"10"})
+    private int topK;
+
+    @Param({"4"})
+    private int rescoreFactor;
+
+    @Param({"100"})
+    private int efSearch;
+
+    @Param({"100"})
+    private int queries;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private VectorChunkRepository repository;
+    private UUID notebookId;
+    private float[][] queryVectors;
+    private List<Set<String>> expected;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String url = System.getenv("ESCRUTA_BENCHMARK_DATABASE_URL");
+        if (url == null) {
+            throw new IllegalStateException(
+                    "Set ESCRUTA_BENCHMARK_DATABASE_URL to a PostgreSQL database with pgvector to run this benchmark");
+        }
+        dataSource = new SingleConnectionDataSource(
+                url,
+                System.getenv("ESCRUTA_BENCHMARK_DATABASE_USERNAME"),
+                System.getenv("ESCRUTA_BENCHMARK_DATABASE_PASSWORD"),
+                true
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        String schema = "escruta_benchmark_%d_%d_%d".formatted(vectors, notebooks, dimensions);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        if (!isLoaded(schema)) {
+            load(schema);
+        }
+        jdbcTemplate.execute("SET search_path TO %s, public".formatted(schema));
+
+        repository = repository(switch (mode) {
+            case "halfvec", "binary" -> mode;
+            default -> "none";
+        });
+        repository.markScopeColumnsReady();
+        notebookId = new UUID(1, 0);
+
+        Random random = new Random(7);
+        float[][] centers = centers();
+        queryVectors = new float[queries][];
+        for (int i = 0; i < queries; i++) {
+            queryVectors[i] = sample(centers, random);
+        }
+        expected = exactNeighbours();
+        report(schema);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        double hits = 0;
+        for (int i = 0; i < queries; i++) {
+            Set<String> found = new HashSet<>(search(queryVectors[i]));
+            found.retainAll(expected.get(i));
+            hits += found.size();
+        }
+        System.out.printf(
+                "%n[%s, %d notebooks] recall@%d against exact search: %.4f%n",
+                mode,
+                notebooks,
+                topK,
+                hits / ((double) queries * topK)
+        );
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return search(queryVectors[next++ % queries]);
+    }
+
+    private List<String> search(float[] query) {
+        return transactionTemplate.execute(status -> {
+            if (!"float-hnsw".equals(mode)) {
+                return repository.searchByNotebookId(notebookId, query, topK, ACCEPT_ALL)
+                        .stream()
+                        .map(Document::getId)
+                        .toList();
+            }
+
+            jdbcTemplate.queryForList(
+                    "SELECT set_config('hnsw.ef_search', ?, true), set_config('hnsw.iterative_scan', ?, true)",
+                    String.valueOf(Math.max(efSearch, topK)),
+                    "relaxed_order"
+            );
+            return jdbcTemplate.queryForList(
+                    "SELECT id::text FROM vector_store WHERE notebook_id = ? ORDER BY embedding <=> ? LIMIT ?",
+                    String.class,
+                    notebookId,
+                    new PGvector(query),
+                    topK
+            );
+        });
+    }
+
+    private VectorChunkRepository repository(String quantization) {
+        return new VectorChunkRepository(
+                jdbcTemplate,
+                new ObjectMapper(),
+                dimensions,
+                quantization,
+                rescoreFactor,
+                efSearch,
+                "relaxed_order"
+        );
+    }
+
+    private boolean isLoaded(String schema) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(? || '.benchmark_loaded') IS NOT NULL",
+                Boolean.class,
+                schema
+        ));
+    }
+
+    private void load(String schema) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS %1$s CASCADE; CREATE SCHEMA %1$s".formatted(schema));
+        jdbcTemplate.execute("SET search_path TO %s, public".formatted(schema));
+        jdbcTemplate.execute("""
+                CREATE TABLE vector_store (
+                    id uuid PRIMARY KEY,
+                    content text,
+                    metadata json,
+                    embedding vector(%d),
+                    notebook_id uuid,
+                    source_id uuid
+                )
+                """.formatted(dimensions));
+
+        Random random = new Random(42);
+        float[][] centers = centers();
+        for (int start = 0; start < vectors; start += INSERT_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = start; i < Math.min(start + INSERT_BATCH_SIZE, vectors); i++) {
+                UUID notebook = new UUID(1, i % notebooks);
+                rows.add(new Object[]{
+                        new UUID(0, i),
+                        "chunk " + i,
+                        "{\"notebookId\":\"%s\"}".formatted(notebook),
+                        new PGvector(sample(centers, random)),
+                        notebook
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO vector_store (id, content, metadata, embedding, notebook_id) VALUES (?, ?, ?::json, ?, ?)",
+                    rows
+            );
+        }
+
+        jdbcTemplate.execute("SET maintenance_work_mem = '1GB'");
+        jdbcTemplate.execute("CREATE INDEX vector_store_notebook_id_idx ON vector_store (notebook_id)");
+        jdbcTemplate.execute("CREATE INDEX spring_ai_vector_index ON vector_store USING hnsw (embedding vector_cosine_ops)");
+        jdbcTemplate.execute("CREATE INDEX vector_store_embedding_halfvec_idx ON vector_store USING hnsw (%s halfvec_cosine_ops)"
+                .formatted(repository("halfvec").getQuantizedExpression()));
+        jdbcTemplate.execute("CREATE INDEX vector_store_embedding_binary_idx ON vector_store USING hnsw (%s bit_hamming_ops)"
+                .formatted(repository("binary").getQuantizedExpression()));
+        jdbcTemplate.execute("RESET maintenance_work_mem");
+        jdbcTemplate.execute("ANALYZE vector_store");
+        jdbcTemplate.execute("CREATE TABLE benchmark_loaded ()");
+    }
+
+    private void report(String schema) {
+        System.out.printf("%n[%s, %d notebooks] sizes in %s:%n", mode, notebooks, schema);
+        for (Map<String, Object> row : jdbcTemplate.queryForList("""
+                SELECT c.relname AS name, pg_relation_size(c.oid) AS bytes
+                FROM pg_class c
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = ? AND c.relkind IN ('r', 'i')
+                ORDER BY c.relname
+                """, schema)) {
+            long bytes = ((Number) row.get("bytes")).longValue();
+            System.out.printf(
+                    "  %-36s %10.1f MB %8.0f bytes/vector%n",
+                    row.get("name"),
+                    bytes / (1024.0 * 1024.0),
+                    bytes / (double) vectors
+            );
+        }
+
+        String sql = switch (mode) {
+            case "exact" -> "SELECT id FROM vector_store WHERE notebook_id = '%s' AND embedding <=> '%s' <= 2 " +
+                    "ORDER BY embedding <=> '%2$s' LIMIT " + topK;
+            case "float-hnsw" -> "SELECT id FROM vector_store WHERE notebook_id = '%s' " +
+                    "ORDER BY embedding <=> '%s' LIMIT " + topK;
+            case "halfvec" -> "SELECT id FROM vector_store WHERE notebook_id = '%s' ORDER BY " +
+                    repository.getQuantizedExpression() + " <=> '%s'::halfvec(" + dimensions + ") LIMIT " +
+                    topK * rescoreFactor;
+            default -> "SELECT id FROM vector_store WHERE notebook_id = '%s' ORDER BY " +
+                    repository.getQuantizedExpression() + " <~> binary_quantize('%s'::vector)::bit(" + dimensions +
+                    ") LIMIT " + topK * rescoreFactor;
+        };
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(
+                    "SELECT set_config('hnsw.ef_search', ?, true), set_config('hnsw.iterative_scan', 'relaxed_order', true)",
+                    String.valueOf(Math.max(efSearch, topK * rescoreFactor))
+            );
+            System.out.printf("[%s, %d notebooks] candidate plan:%n", mode, notebooks);
+            jdbcTemplate.queryForList(
+                            "EXPLAIN " + sql.formatted(notebookId, new PGvector(queryVectors[0])),
+                            String.class
+                    )
+                    .forEach(line -> System.out.println("  " + line));
+        });
+    }
+
+    private List<Set<String>> exactNeighbours() {
+        Random random = new Random(42);
+        float[][] centers = centers();
+        List<float[]> notebookVectors = new ArrayList<>();
+        List<String> notebookIds = new ArrayList<>();
+        for (int i = 0; i < vectors; i++) {
+            float[] vector = sample(centers, random);
+            if (i % notebooks == 0) {
+                notebookVectors.add(vector);
+                notebookIds.add(new UUID(0, i).toString());
+            }
+        }
+
+        List<Set<String>> neighbours = new ArrayList<>(queries);
+        for (float[] query : queryVectors) {
+            double[] similarities = notebookVectors.stream()
+                    .mapToDouble(vector -> dot(query, vector))
+                    .toArray();
+            Set<String> top = new HashSet<>();
+            IntStream.range(0, similarities.length)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(index -> -similarities[index]))
+                    .limit(topK)
+                    .forEach(index -> top.add(notebookIds.get(index)));
+            neighbours.add(top);
+        }
+        return neighbours;
+    }
+
+    private float[][] centers() {
+        Random random = new Random(1);
+        float[][] centers = new float[CLUSTERS][dimensions];
+        for (float[] center : centers) {
+            for (int d = 0; d < dimensions; d++) {
+                center[d] = (float) random.nextGaussian();
+            }
+            normalize(center);
+        }
+        return centers;
+    }
+
+    // Embeddings cluster by topic, so vectors are drawn around shared centres rather than uniformly.
+    private float[] sample(float[][] centers, Random random) {
+        float[] center = centers[random.nextInt(centers.length)];
+        float[] vector = Arrays.copyOf(center, dimensions);
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] += (float) (random.nextGaussian() * 0.05);
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] /= (float) norm;
+        }
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int d = 0; d < a.length; d++) {
+            dot += a[d] * b[d];
+        }
+        return dot;
+    }
+}
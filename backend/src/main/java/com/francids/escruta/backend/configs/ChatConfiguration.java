@@ -0,0 +1,103 @@
+package com.francids.escruta.backend.configs;
+
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import com.francids.escruta.backend.services.Bm25DocumentReranker;
+import com.francids.escruta.backend.services.CachingChatMemoryRepository;
+import com.francids.escruta.backend.services.HybridDocumentRetriever;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.ai.rag.generation.augmentation.ContextualQueryAugmenter;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ChatConfiguration {
+    @Bean
+    ChatMemory chatMemory(
+            CachingChatMemoryRepository chatMemoryRepository,
+            @Value("${chat-memory.max-messages}") int maxMessages
+    ) {
+        return MessageWindowChatMemory.builder()
+                .chatMemoryRepository(chatMemoryRepository)
+                .maxMessages(maxMessages)
+                .build();
+    }
+
+    @Bean
+    Advisor retrievalAdvisor(
+            VectorStore vectorStore,
+            VectorChunkRepository vectorChunkRepository,
+            @Qualifier("retrievalExecutor") ThreadPoolTaskExecutor retrievalExecutor,
+            @Value("${retrieval.mode}") String mode,
+            @Value("${retrieval.top-k}") int topK,
+            @Value("${retrieval.hybrid.candidates}") int hybridCandidates,
+            @Value("${retrieval.hybrid.rrf-k}") int rrfK,
+            @Value("${retrieval.rerank.enabled}") boolean rerank,
+            @Value("${retrieval.rerank.candidates}") int rerankCandidates,
+            @Value("${retrieval.rerank.lexical-weight}") double lexicalWeight
+    ) {
+        boolean hybrid = "hybrid".equals(mode);
+        if (!hybrid && !rerank) {
+            return QuestionAnswerAdvisor.builder(vectorStore)
+                    .searchRequest(SearchRequest.builder()
+                            .topK(topK)
+                            .build())
+                    .build();
+        }
+
+        int retrieved = rerank ?
+                rerankCandidates :
+                topK;
+        DocumentRetriever documentRetriever = hybrid ?
+                new HybridDocumentRetriever(
+                        vectorStore,
+                        vectorChunkRepository,
+                        retrievalExecutor,
+                        Math.max(hybridCandidates, retrieved),
+                        rrfK,
+                        retrieved
+                ) :
+                VectorStoreDocumentRetriever.builder()
+                        .vectorStore(vectorStore)
+                        .topK(retrieved)
+                        .build();
+
+        var builder = RetrievalAugmentationAdvisor.builder()
+                .documentRetriever(documentRetriever)
+                .queryAugmenter(ContextualQueryAugmenter.builder()
+                        .allowEmptyContext(true)
+                        .build());
+        if (rerank) {
+            builder.documentPostProcessors(new Bm25DocumentReranker(topK, lexicalWeight));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    ChatClient chatClient(ChatClient.Builder builder, ChatMemory chatMemory, Advisor retrievalAdvisor) {
+        return builder.defaultAdvisors(
+                        MessageChatMemoryAdvisor.builder(chatMemory)
+                                .build(),
+                        retrievalAdvisor
+                )
+                .build();
+    }
+
+    @Bean
+    ChatClient retrievalChatClient(ChatClient.Builder builder, Advisor retrievalAdvisor) {
+        return builder.defaultAdvisors(retrievalAdvisor)
+                .build();
+    }
+}
@@ -1,9 +1,13 @@
 package com.francids.escruta.backend.configs;
 
+import com.francids.escruta.backend.dtos.CursorPage;
+import com.francids.escruta.backend.dtos.source.SourceContentInfoDTO;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -43,7 +47,9 @@ public class SecurityConfiguration {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
-                .authorizeHttpRequests(authorize -> authorize.requestMatchers(HttpMethod.POST, "/login", "/register")
+                .authorizeHttpRequests(authorize -> authorize.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR)
+                        .permitAll()
+                        .requestMatchers(HttpMethod.POST, "/login", "/register")
                         .permitAll()
                         .requestMatchers(HttpMethod.GET, "/")
                         .permitAll()
@@ -67,6 +73,12 @@ public class SecurityConfiguration {
 
         List<String> headers = Arrays.asList(allowedHeaders.split(","));
         configuration.setAllowedHeaders(headers);
+        configuration.setExposedHeaders(List.of(
+                CursorPage.NEXT_CURSOR_HEADER,
+                HttpHeaders.ETAG,
+                SourceContentInfoDTO.CONTENT_OFFSET_HEADER,
+                SourceContentInfoDTO.CONTENT_TOTAL_HEADER
+        ));
 
         configuration.setAllowCredentials(allowCredentials);
 
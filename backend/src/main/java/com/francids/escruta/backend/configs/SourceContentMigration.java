@@ -0,0 +1,154 @@
+package com.francids.escruta.backend.configs;
+
+import com.francids.escruta.backend.services.SourceContentService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class SourceContentMigration {
+    private static final Logger logger = LoggerFactory.getLogger(SourceContentMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SourceContentService sourceContentService;
+
+    @Value("${source-content.migration.batch-size}")
+    private int batchSize;
+
+    @Value("${source-content.migration.batch-delay}")
+    private Duration batchDelay;
+
+    @Value("${source-content.migration.retry-interval}")
+    private Duration retryInterval;
+
+    @Value("${source-content.drop-inline-column}")
+    private boolean dropInlineColumn;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform()
+                .name("source-content-migration")
+                .daemon()
+                .start(this::migrate);
+    }
+
+    private void migrate() {
+        while (!Thread.currentThread()
+                .isInterrupted()) {
+            try {
+                if (!sourceContentService.hasInlineContent()) {
+                    sourceContentService.markInlineContentMigrated();
+                    return;
+                }
+
+                Boolean migrated = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                        migrateLocked(new JdbcTemplate(new SingleConnectionDataSource(connection, true))));
+                if (Boolean.TRUE.equals(migrated)) {
+                    sourceContentService.markInlineContentMigrated();
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn(
+                        "Failed to migrate source content, remaining sources are migrated when first read: {}",
+                        e.getMessage()
+                );
+            }
+
+            try {
+                Thread.sleep(retryInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+        }
+    }
+
+    private boolean migrateLocked(JdbcTemplate session) {
+        if (!Boolean.TRUE.equals(session.queryForObject(
+                "SELECT pg_try_advisory_lock(hashtext('source_content_migration'))",
+                Boolean.class
+        ))) {
+            return false;
+        }
+
+        try {
+            session.execute("SET lock_timeout = '5s'");
+            if (isInlineContentRequired(session)) {
+                session.execute("ALTER TABLE sources ALTER COLUMN content DROP NOT NULL");
+            }
+            migrateBatches(session);
+
+            if (dropInlineColumn) {
+                session.execute("ALTER TABLE sources DROP COLUMN IF EXISTS content");
+                sourceContentService.markInlineContentDropped();
+                logger.info("Dropped the inline sources.content column");
+            }
+            return true;
+        } finally {
+            session.execute("RESET lock_timeout");
+            session.queryForObject("SELECT pg_advisory_unlock(hashtext('source_content_migration'))", Boolean.class);
+        }
+    }
+
+    private static boolean isInlineContentRequired(JdbcTemplate session) {
+        return Boolean.TRUE.equals(session.queryForObject(
+                """
+                        SELECT EXISTS (
+                            SELECT 1 FROM information_schema.columns
+                            WHERE table_name = 'sources' AND column_name = 'content' AND is_nullable = 'NO'
+                        )
+                        """,
+                Boolean.class
+        ));
+    }
+
+    private void migrateBatches(JdbcTemplate session) {
+        UUID cursor = new UUID(0, 0);
+        int migrated = 0;
+        while (true) {
+            List<UUID> batch = session.queryForList(
+                    """
+                            SELECT id FROM sources
+                            WHERE id > ? AND content_hash IS NULL
+                            ORDER BY id
+                            LIMIT ?
+                            """,
+                    UUID.class,
+                    cursor,
+                    batchSize
+            );
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (UUID sourceId : batch) {
+                sourceContentService.migrateInline(sourceId);
+            }
+            migrated += batch.size();
+            cursor = batch.getLast();
+
+            try {
+                Thread.sleep(batchDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+                throw new IllegalStateException("Interrupted while migrating source content", e);
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Moved the content of {} sources to compressed storage", migrated);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.francids.escruta.backend.configs;
+
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class VectorStoreSchemaInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreSchemaInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VectorChunkRepository vectorChunkRepository;
+
+    @Value("${spring.ai.vectorstore.pgvector.index-type}")
+    private String indexType;
+
+    @Value("${vector-store.migration.batch-size}")
+    private int batchSize;
+
+    @Value("${vector-store.migration.batch-delay}")
+    private Duration batchDelay;
+
+    @Value("${vector-store.migration.retry-interval}")
+    private Duration retryInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform()
+                .name("vector-store-migration")
+                .daemon()
+                .start(this::migrate);
+    }
+
+    private void migrate() {
+        if (isMigrated(jdbcTemplate)) {
+            vectorChunkRepository.markScopeColumnsReady();
+        }
+
+        while (!Thread.currentThread()
+                .isInterrupted()) {
+            try {
+                Boolean migrated = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                        migrateLocked(new JdbcTemplate(new SingleConnectionDataSource(connection, true))));
+                if (Boolean.TRUE.equals(migrated)) {
+                    vectorChunkRepository.markScopeColumnsReady();
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to migrate the vector store schema: {}", e.getMessage());
+            }
+
+            try {
+                Thread.sleep(retryInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+        }
+    }
+
+    private boolean migrateLocked(JdbcTemplate session) {
+        if (!Boolean.TRUE.equals(session.queryForObject(
+                "SELECT pg_try_advisory_lock(hashtext('vector_store_migration'))",
+                Boolean.class
+        ))) {
+            return false;
+        }
+
+        try {
+            session.execute("SET lock_timeout = '5s'");
+            if (!isMigrated(session)) {
+                if (!hasGeneratedScopeColumns(session)) {
+                    addScopeColumns(session);
+                    backfillScopeColumns(session);
+                }
+                createIndexConcurrently(session, "vector_store_notebook_id_idx", "vector_store (notebook_id)");
+                createIndexConcurrently(session, "vector_store_source_id_idx", "vector_store (source_id)");
+                logger.info("Vector store scope columns are backfilled and indexed");
+            }
+            createIndexConcurrently(
+                    session,
+                    "vector_store_content_fts_idx",
+                    "vector_store USING gin (to_tsvector('simple', content))"
+            );
+            initializeQuantizedIndex(session);
+            return true;
+        } finally {
+            session.execute("RESET lock_timeout");
+            session.queryForObject("SELECT pg_advisory_unlock(hashtext('vector_store_migration'))", Boolean.class);
+        }
+    }
+
+    private static boolean isMigrated(JdbcTemplate session) {
+        Integer validIndexes = session.queryForObject(
+                """
+                        SELECT count(*) FROM pg_index
+                        WHERE indexrelid IN (
+                            to_regclass('vector_store_notebook_id_idx'),
+                            to_regclass('vector_store_source_id_idx')
+                        ) AND indisvalid
+                        """,
+                Integer.class
+        );
+        return validIndexes != null && validIndexes == 2;
+    }
+
+    private static boolean hasGeneratedScopeColumns(JdbcTemplate session) {
+        Integer generated = session.queryForObject(
+                """
+                        SELECT count(*) FROM information_schema.columns
+                        WHERE table_name = 'vector_store'
+                          AND column_name IN ('notebook_id', 'source_id')
+                          AND is_generated = 'ALWAYS'
+                        """,
+                Integer.class
+        );
+        return generated != null && generated == 2;
+    }
+
+    private static void addScopeColumns(JdbcTemplate session) {
+        session.execute("ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS notebook_id uuid");
+        session.execute("ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS source_id uuid");
+        session.execute("""
+                CREATE OR REPLACE FUNCTION vector_store_set_scope() RETURNS trigger AS $$
+                BEGIN
+                    NEW.notebook_id := (NEW.metadata->>'notebookId')::uuid;
+                    NEW.source_id := (NEW.metadata->>'sourceId')::uuid;
+                    RETURN NEW;
+                END
+                $$ LANGUAGE plpgsql
+                """);
+        session.execute("""
+                CREATE OR REPLACE TRIGGER vector_store_set_scope
+                BEFORE INSERT OR UPDATE OF metadata ON vector_store
+                FOR EACH ROW EXECUTE FUNCTION vector_store_set_scope()
+                """);
+    }
+
+    private void backfillScopeColumns(JdbcTemplate session) {
+        UUID cursor = new UUID(0, 0);
+        long updated = 0;
+        while (true) {
+            List<UUID> last = session.queryForList(
+                    """
+                            SELECT id FROM (SELECT id FROM vector_store WHERE id > ? ORDER BY id LIMIT ?) batch
+                            ORDER BY id DESC LIMIT 1
+                            """,
+                    UUID.class,
+                    cursor,
+                    batchSize
+            );
+            if (last.isEmpty()) {
+                break;
+            }
+
+            updated += session.update(
+                    """
+                            UPDATE vector_store
+                            SET notebook_id = (metadata->>'notebookId')::uuid,
+                                source_id = (metadata->>'sourceId')::uuid
+                            WHERE id > ? AND id <= ?
+                              AND notebook_id IS NULL AND source_id IS NULL
+                            """,
+                    cursor,
+                    last.getFirst()
+            );
+            cursor = last.getFirst();
+
+            try {
+                Thread.sleep(batchDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+                throw new IllegalStateException("Interrupted while backfilling the vector store", e);
+            }
+        }
+        logger.info("Backfilled the scope columns of {} vector store rows", updated);
+    }
+
+    private static void createIndexConcurrently(JdbcTemplate session, String name, String definition) {
+        Boolean valid = session.query(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                rs -> rs.next() ?
+                        rs.getBoolean(1) :
+                        null,
+                name
+        );
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(valid)) {
+            session.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        session.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON %s".formatted(name, definition));
+    }
+
+    private void initializeQuantizedIndex(JdbcTemplate session) {
+        VectorChunkRepository.Quantization quantization = vectorChunkRepository.getQuantization();
+        if (quantization == VectorChunkRepository.Quantization.NONE) {
+            return;
+        }
+
+        String operatorClass = quantization == VectorChunkRepository.Quantization.HALFVEC ?
+                "halfvec_cosine_ops" :
+                "bit_hamming_ops";
+        createIndexConcurrently(
+                session,
+                "vector_store_embedding_%s_idx".formatted(quantization.name()
+                        .toLowerCase(Locale.ROOT)),
+                "vector_store USING hnsw (%s %s)".formatted(vectorChunkRepository.getQuantizedExpression(), operatorClass)
+        );
+        if (!"none".equalsIgnoreCase(indexType)) {
+            logger.warn("Quantized vector search is enabled but the full-precision {} index is still maintained; " +
+                    "set spring.ai.vectorstore.pgvector.index-type to none to reclaim its memory", indexType);
+        }
+    }
+}
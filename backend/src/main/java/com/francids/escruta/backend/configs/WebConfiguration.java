@@ -3,6 +3,8 @@ package com.francids.escruta.backend.configs;
 import com.francids.escruta.backend.configs.interceptor.NotebookOwnershipInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,10 +12,17 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @RequiredArgsConstructor
 class WebConfiguration implements WebMvcConfigurer {
     private final NotebookOwnershipInterceptor notebookOwnershipInterceptor;
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(notebookOwnershipInterceptor);
         WebMvcConfigurer.super.addInterceptors(registry);
     }
+
+    // The other executor beans make Boot skip its applicationTaskExecutor, which streamed responses would otherwise use.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
 }
@@ -1,6 +1,7 @@
 package com.francids.escruta.backend.configs.interceptor;
 
 import com.francids.escruta.backend.services.NotebookOwnershipService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
@@ -24,6 +25,10 @@ public class NotebookOwnershipInterceptor implements HandlerInterceptor {
             @NonNull HttpServletResponse response,
             @NonNull Object handler
     ) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         @SuppressWarnings("unchecked") Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
                 HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
         String notebookId = pathVariables.get("notebookId");
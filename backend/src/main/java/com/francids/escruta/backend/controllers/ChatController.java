@@ -1,31 +1,42 @@
 package com.francids.escruta.backend.controllers;
 
 import com.francids.escruta.backend.dtos.ChatRequest;
+import com.francids.escruta.backend.dtos.ChatStreamDelta;
 import com.francids.escruta.backend.dtos.ChatReplyMessage;
 import com.francids.escruta.backend.dtos.ExampleQuestions;
 import com.francids.escruta.backend.dtos.SummaryResponse;
 import com.francids.escruta.backend.repositories.NotebookRepository;
+import com.francids.escruta.backend.services.AnswerCacheService;
+import com.francids.escruta.backend.services.NotebookInsightService;
 import com.francids.escruta.backend.services.SourceService;
 import com.francids.escruta.backend.services.RetrievalService;
-import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.MessageWindowChatMemory;
-import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
-import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.validation.Valid;
 import java.util.*;
 
 @RestController
 @RequestMapping("notebooks/{notebookId}")
-@RequiredArgsConstructor
 class ChatController {
+    private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+
     private static final String UNIFIED_SYSTEM_MESSAGE = """
             You are a helpful AI assistant. Answer questions using ONLY the provided sources.
             
@@ -38,31 +49,55 @@ class ChatController {
 
     private final SourceService sourceService;
     private final RetrievalService retrievalService;
-    private final ChatModel chatModel;
     private final NotebookRepository notebookRepository;
-    private final JdbcChatMemoryRepository chatMemoryRepository;
+    private final NotebookInsightService notebookInsightService;
+    private final AnswerCacheService answerCacheService;
+    private final ChatMemory chatMemory;
+    private final ChatClient chatClient;
+    private final ChatClient retrievalChatClient;
+
+    ChatController(
+            SourceService sourceService,
+            RetrievalService retrievalService,
+            NotebookRepository notebookRepository,
+            NotebookInsightService notebookInsightService,
+            AnswerCacheService answerCacheService,
+            ChatMemory chatMemory,
+            @Qualifier("chatClient") ChatClient chatClient,
+            @Qualifier("retrievalChatClient") ChatClient retrievalChatClient
+    ) {
+        this.sourceService = sourceService;
+        this.retrievalService = retrievalService;
+        this.notebookRepository = notebookRepository;
+        this.notebookInsightService = notebookInsightService;
+        this.answerCacheService = answerCacheService;
+        this.chatMemory = chatMemory;
+        this.chatClient = chatClient;
+        this.retrievalChatClient = retrievalChatClient;
+    }
 
     @PostMapping("summary")
     ResponseEntity<String> generateSummary(@PathVariable UUID notebookId) {
         try {
             if (sourceService.hasSources(notebookId)) {
-                SummaryResponse summary = ChatClient.create(chatModel)
-                        .prompt()
-                        .advisors(retrievalService.getQuestionAnswerAdvisor(notebookId))
-                        .system(UNIFIED_SYSTEM_MESSAGE)
-                        .user("I want you to summarize the key information in 2 or 3 sentences, and I want that summary to be clear, complete, and free of citations or references.")
-                        .call()
-                        .entity(SummaryResponse.class);
-
-                assert summary != null;
-                notebookRepository.updateSummary(notebookId, summary.summary());
-                return ResponseEntity.ok(summary.summary());
+                String summary = notebookInsightService.getSummary(notebookId, () -> {
+                    SummaryResponse response = retrievalChatClient.prompt()
+                            .advisors(advisorSpec -> advisorSpec.params(retrievalService.getNotebookAdvisorParams(notebookId)))
+                            .system(UNIFIED_SYSTEM_MESSAGE)
+                            .user("I want you to summarize the key information in 2 or 3 sentences, and I want that summary to be clear, complete, and free of citations or references.")
+                            .call()
+                            .entity(SummaryResponse.class);
+
+                    assert response != null;
+                    return response.summary();
+                });
+                return ResponseEntity.ok(summary);
             } else {
                 return ResponseEntity.badRequest()
                         .body("No sources are available in this notebook to generate a summary.");
             }
         } catch (Exception e) {
-            System.out.println("Error during summary generation: " + e.getMessage());
+            logger.warn("Error during summary generation for notebook {}", notebookId, e);
             return ResponseEntity.internalServerError()
                     .body("An error occurred while generating the summary. Please try again.");
         }
@@ -93,20 +128,24 @@ class ChatController {
     public ResponseEntity<?> getExampleQuestions(@PathVariable UUID notebookId) {
         try {
             if (sourceService.hasSources(notebookId)) {
-                ExampleQuestions exampleQuestions = ChatClient.create(chatModel)
-                        .prompt()
-                        .advisors(retrievalService.getQuestionAnswerAdvisor(notebookId))
-                        .user("Based on the provided context, generate three simple, short, and concise questions that can be answered using the sources.")
-                        .call()
-                        .entity(ExampleQuestions.class);
-
-                return ResponseEntity.ok(exampleQuestions);
+                List<String> questions = notebookInsightService.getExampleQuestions(notebookId, () -> {
+                    ExampleQuestions response = retrievalChatClient.prompt()
+                            .advisors(advisorSpec -> advisorSpec.params(retrievalService.getNotebookAdvisorParams(notebookId)))
+                            .user("Based on the provided context, generate three simple, short, and concise questions that can be answered using the sources.")
+                            .call()
+                            .entity(ExampleQuestions.class);
+
+                    assert response != null;
+                    return response.questions();
+                });
+
+                return ResponseEntity.ok(new ExampleQuestions(questions));
             } else {
                 return ResponseEntity.badRequest()
                         .body("No sources are available in this notebook to generate a summary.");
             }
         } catch (Exception e) {
-            System.out.println("Error during example questions generation: " + e.getMessage());
+            logger.warn("Error during example questions generation for notebook {}", notebookId, e);
             return ResponseEntity.internalServerError().body(List.of());
         }
     }
@@ -117,47 +156,46 @@ class ChatController {
             @Valid @RequestBody ChatRequest request
     ) {
         try {
-            ChatMemory chatMemory = MessageWindowChatMemory.builder()
-                    .chatMemoryRepository(chatMemoryRepository)
-                    .maxMessages(10)
-                    .build();
-
-            var chatClient = ChatClient.builder(chatModel).defaultSystem(UNIFIED_SYSTEM_MESSAGE).defaultAdvisors(
-                    MessageChatMemoryAdvisor.builder(chatMemory).build(),
-                    retrievalService.getQuestionAnswerAdvisor(notebookId)
-            ).build();
-
             String conversationId = request.conversationId() != null ?
                     request.conversationId() :
                     UUID.randomUUID().toString();
 
+            boolean cacheable = isFirstTurn(conversationId);
+            var cachedAnswer = cacheable ?
+                    getCachedAnswer(notebookId, conversationId, request.userInput()) :
+                    null;
+            if (cachedAnswer != null) {
+                return ResponseEntity.ok(new ChatReplyMessage(
+                        cachedAnswer.content(),
+                        conversationId,
+                        cachedAnswer.citedSources()
+                ));
+            }
+
             var chatResponse = chatClient.prompt()
-                    .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId))
+                    .system(UNIFIED_SYSTEM_MESSAGE)
+                    .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId)
+                            .params(retrievalService.getNotebookAdvisorParams(notebookId)))
                     .user(request.userInput())
                     .call()
                     .chatResponse();
 
             assert chatResponse != null;
-            List<Document> documents = chatResponse.getMetadata()
-                    .getOrDefault(QuestionAnswerAdvisor.RETRIEVED_DOCUMENTS, List.of());
-
-            List<ChatReplyMessage.CitedSource> citedSources = documents.stream()
-                    .map(doc -> new ChatReplyMessage.CitedSource(
-                            UUID.fromString(doc.getMetadata()
-                                    .get("sourceId")
-                                    .toString()),
-                            doc.getMetadata().get("title").toString()
-                    ))
-                    .distinct()
-                    .toList();
-
-            return ResponseEntity.ok(new ChatReplyMessage(
+            var reply = new ChatReplyMessage(
                     chatResponse.getResult().getOutput().getText(),
                     conversationId,
-                    citedSources
-            ));
+                    getCitedSources(chatResponse)
+            );
+            if (cacheable) {
+                answerCacheService.put(
+                        notebookId,
+                        request.userInput(),
+                        new AnswerCacheService.CachedAnswer(reply.content(), reply.citedSources())
+                );
+            }
+            return ResponseEntity.ok(reply);
         } catch (Exception e) {
-            System.out.println("Error during chat generation: " + e.getMessage());
+            logger.warn("Error during chat generation for notebook {}", notebookId, e);
             return ResponseEntity.internalServerError()
                     .body(new ChatReplyMessage(
                             "An error occurred while processing your request. Please try again.",
@@ -166,4 +204,124 @@ class ChatController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<?>> streamGeneration(
+            @PathVariable UUID notebookId,
+            @Valid @RequestBody ChatRequest request
+    ) {
+        String conversationId = request.conversationId() != null ?
+                request.conversationId() :
+                UUID.randomUUID().toString();
+
+        boolean cacheable = isFirstTurn(conversationId);
+        var cachedAnswer = cacheable ?
+                getCachedAnswer(notebookId, conversationId, request.userInput()) :
+                null;
+        if (cachedAnswer != null) {
+            return Flux.just(
+                    ServerSentEvent.builder(new ChatStreamDelta(cachedAnswer.content()))
+                            .event("delta")
+                            .build(),
+                    ServerSentEvent.builder(new ChatReplyMessage(
+                                    cachedAnswer.content(),
+                                    conversationId,
+                                    cachedAnswer.citedSources()
+                            ))
+                            .event("done")
+                            .build()
+            );
+        }
+
+        StringBuilder content = new StringBuilder();
+        Set<ChatReplyMessage.CitedSource> citedSources = new LinkedHashSet<>();
+
+        Flux<ServerSentEvent<?>> deltas = chatClient.prompt()
+                .system(UNIFIED_SYSTEM_MESSAGE)
+                .advisors(advisorSpec -> advisorSpec.param(ChatMemory.CONVERSATION_ID, conversationId)
+                        .params(retrievalService.getNotebookAdvisorParams(notebookId)))
+                .user(request.userInput())
+                .stream()
+                .chatResponse()
+                .concatMap(chatResponse -> {
+                    citedSources.addAll(getCitedSources(chatResponse));
+                    String delta = chatResponse.getResult() != null ?
+                            chatResponse.getResult().getOutput().getText() :
+                            null;
+                    if (delta == null || delta.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    content.append(delta);
+                    return Flux.just(ServerSentEvent.builder(new ChatStreamDelta(delta))
+                            .event("delta")
+                            .build());
+                });
+
+        return deltas
+                .concatWith(Flux.defer(() -> {
+                    var reply = new ChatReplyMessage(content.toString(), conversationId, List.copyOf(citedSources));
+                    if (cacheable) {
+                        Mono.fromRunnable(() -> answerCacheService.put(
+                                        notebookId,
+                                        request.userInput(),
+                                        new AnswerCacheService.CachedAnswer(reply.content(), reply.citedSources())
+                                ))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .subscribe();
+                    }
+                    return Flux.just(ServerSentEvent.builder(reply)
+                            .event("done")
+                            .build());
+                }))
+                .onErrorResume(e -> {
+                    logger.warn("Error during chat streaming for notebook {}", notebookId, e);
+                    return Flux.just(ServerSentEvent.builder(new ChatReplyMessage(
+                                    "An error occurred while processing your request. Please try again.",
+                                    null,
+                                    List.of()
+                            ))
+                            .event("error")
+                            .build());
+                });
+    }
+
+    private boolean isFirstTurn(String conversationId) {
+        return chatMemory.get(conversationId)
+                .isEmpty();
+    }
+
+    private AnswerCacheService.CachedAnswer getCachedAnswer(UUID notebookId, String conversationId, String question) {
+        try {
+            var cachedAnswer = answerCacheService.find(notebookId, question);
+            if (cachedAnswer != null) {
+                chatMemory.add(conversationId, List.of(
+                        new UserMessage(question),
+                        new AssistantMessage(cachedAnswer.content())
+                ));
+            }
+            return cachedAnswer;
+        } catch (Exception e) {
+            logger.warn("Error during answer cache lookup for notebook {}: {}", notebookId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<ChatReplyMessage.CitedSource> getCitedSources(ChatResponse chatResponse) {
+        List<Document> documents = chatResponse.getMetadata()
+                .getOrDefault(QuestionAnswerAdvisor.RETRIEVED_DOCUMENTS, List.of());
+        if (documents.isEmpty()) {
+            documents = chatResponse.getMetadata()
+                    .getOrDefault(RetrievalAugmentationAdvisor.DOCUMENT_CONTEXT, List.of());
+        }
+
+        return documents.stream()
+                .map(doc -> new ChatReplyMessage.CitedSource(
+                        UUID.fromString(doc.getMetadata()
+                                .get("sourceId")
+                                .toString()),
+                        doc.getMetadata().get("title").toString()
+                ))
+                .distinct()
+                .toList();
+    }
+}
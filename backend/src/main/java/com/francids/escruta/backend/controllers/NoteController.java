@@ -1,5 +1,6 @@
 package com.francids.escruta.backend.controllers;
 
+import com.francids.escruta.backend.dtos.CursorPage;
 import com.francids.escruta.backend.dtos.note.NoteCreationDTO;
 import com.francids.escruta.backend.dtos.note.NoteResponseDTO;
 import com.francids.escruta.backend.dtos.note.NoteUpdateDTO;
@@ -22,9 +23,21 @@ public class NoteController {
 
     @GetMapping
     public ResponseEntity<List<NoteResponseDTO>> getNotebookNotes(
-            @PathVariable UUID notebookId
+            @PathVariable UUID notebookId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
     ) {
-        return ResponseEntity.ok(noteService.getNotes(notebookId));
+        try {
+            var page = noteService.getNotes(notebookId, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .build();
+        }
     }
 
     @GetMapping("{noteId}")
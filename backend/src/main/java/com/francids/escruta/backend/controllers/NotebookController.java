@@ -1,5 +1,6 @@
 package com.francids.escruta.backend.controllers;
 
+import com.francids.escruta.backend.dtos.CursorPage;
 import com.francids.escruta.backend.dtos.notebook.NotebookCreationDTO;
 import com.francids.escruta.backend.dtos.notebook.NotebookResponseDTO;
 import com.francids.escruta.backend.dtos.notebook.NotebookUpdateDTO;
@@ -22,8 +23,21 @@ public class NotebookController {
     private final NotebookService notebookService;
 
     @GetMapping
-    public List<NotebookResponseDTO> getUserNotebooks() {
-        return notebookService.getAllUserNotebooks();
+    public ResponseEntity<List<NotebookResponseDTO>> getUserNotebooks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        try {
+            var page = notebookService.getUserNotebooks(cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .build();
+        }
     }
 
     @GetMapping("{notebookId}")
@@ -1,18 +1,30 @@
 package com.francids.escruta.backend.controllers;
 
+import com.francids.escruta.backend.dtos.CursorPage;
+import com.francids.escruta.backend.dtos.source.SourceContentInfoDTO;
 import com.francids.escruta.backend.dtos.source.SourceCreationDTO;
 import com.francids.escruta.backend.dtos.source.SourceFileCreationDTO;
 import com.francids.escruta.backend.dtos.source.SourceResponseDTO;
+import com.francids.escruta.backend.dtos.source.SourceStatusDTO;
 import com.francids.escruta.backend.dtos.source.SourceUpdateDTO;
 import com.francids.escruta.backend.dtos.source.SourceWithContentDTO;
+import com.francids.escruta.backend.exceptions.IndexingCapacityException;
 import com.francids.escruta.backend.services.SourceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,9 +36,21 @@ public class SourceController {
 
     @GetMapping
     public ResponseEntity<List<SourceResponseDTO>> getNotebookSources(
-            @PathVariable UUID notebookId
+            @PathVariable UUID notebookId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
     ) {
-        return ResponseEntity.ok(sourceService.getSources(notebookId));
+        try {
+            var page = sourceService.getSources(notebookId, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .build();
+        }
     }
 
     @GetMapping("{sourceId}")
@@ -41,6 +65,77 @@ public class SourceController {
                         .build();
     }
 
+    @GetMapping("{sourceId}/content")
+    public ResponseEntity<StreamingResponseBody> getNotebookSourceContent(
+            @PathVariable UUID notebookId,
+            @PathVariable UUID sourceId,
+            @RequestParam(name = "offset", defaultValue = "0") int offset,
+            @RequestParam(name = "length", required = false) Integer length,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        SourceContentInfoDTO contentInfo = sourceService.getSourceContentInfo(notebookId, sourceId);
+        if (contentInfo == null) {
+            return ResponseEntity.notFound()
+                    .build();
+        }
+
+        String eTag = "\"" + contentInfo.contentHash() + "\"";
+        if (ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(value -> value.trim()
+                        .replaceFirst("^W/", ""))
+                .anyMatch(value -> value.equals(eTag) || value.equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .build();
+        }
+
+        int total = contentInfo.contentLength() != null ?
+                contentInfo.contentLength() :
+                0;
+        if (offset < 0 || (length != null && length <= 0)) {
+            return ResponseEntity.badRequest()
+                    .build();
+        }
+        if (offset > total || (offset == total && total > 0)) {
+            return ResponseEntity.badRequest()
+                    .header(SourceContentInfoDTO.CONTENT_TOTAL_HEADER, String.valueOf(total))
+                    .build();
+        }
+
+        // Neither end of the range may split a surrogate pair, otherwise the response would not be valid UTF-8.
+        int start = sourceService.alignSourceContentOffset(sourceId, offset);
+        int requestedEnd = length != null ?
+                (int) Math.min((long) offset + length, total) :
+                total;
+        int end = sourceService.alignSourceContentOffset(sourceId, Math.max(requestedEnd, Math.min(start + 1, total)));
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            sourceService.writeSourceContent(sourceId, contentInfo.contentHash(), start, end, writer);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .eTag(eTag)
+                .header(SourceContentInfoDTO.CONTENT_OFFSET_HEADER, String.valueOf(start))
+                .header(SourceContentInfoDTO.CONTENT_TOTAL_HEADER, String.valueOf(total))
+                .cacheControl(CacheControl.noCache()
+                        .cachePrivate())
+                .body(body);
+    }
+
+    @GetMapping("{sourceId}/status")
+    public ResponseEntity<SourceStatusDTO> getNotebookSourceStatus(
+            @PathVariable UUID notebookId,
+            @PathVariable UUID sourceId
+    ) {
+        var status = sourceService.getSourceStatus(notebookId, sourceId);
+        return status != null ?
+                ResponseEntity.ok(status) :
+                ResponseEntity.notFound()
+                        .build();
+    }
+
     @PostMapping
     public ResponseEntity<SourceWithContentDTO> createNotebookSource(
             @PathVariable UUID notebookId,
@@ -50,10 +145,13 @@ public class SourceController {
         try {
             var source = sourceService.addSource(notebookId, sourceCreationDTO, aiConverter);
             return source != null ?
-                    ResponseEntity.status(HttpStatus.CREATED)
+                    ResponseEntity.status(HttpStatus.ACCEPTED)
                             .body(source) :
                     ResponseEntity.badRequest()
                             .build();
+        } catch (IndexingCapacityException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .build();
@@ -82,13 +180,16 @@ public class SourceController {
 
             var source = sourceService.addSourceFromFile(notebookId, sourceFileCreationDTO, file, aiConverter);
             return source != null ?
-                    ResponseEntity.status(HttpStatus.CREATED)
+                    ResponseEntity.status(HttpStatus.ACCEPTED)
                             .body(source) :
                     ResponseEntity.badRequest()
                             .build();
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .build();
+        } catch (IndexingCapacityException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(e.getMessage());
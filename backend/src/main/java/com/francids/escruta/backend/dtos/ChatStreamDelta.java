@@ -0,0 +1,6 @@
+package com.francids.escruta.backend.dtos;
+
+public record ChatStreamDelta(
+        String content
+) {
+}
@@ -0,0 +1,31 @@
+package com.francids.escruta.backend.dtos;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public record PageCursor(
+        Timestamp updatedAt,
+        UUID id
+) {
+    public String encode() {
+        String value = updatedAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder()
+                    .decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", 2);
+            return new PageCursor(Timestamp.from(Instant.parse(parts[0])), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+}
@@ -11,6 +11,7 @@ public record NotebookResponseDTO(
         BasicUser user,
         String icon,
         String title,
+        boolean answerCacheEnabled,
         Timestamp createdAt,
         Timestamp updatedAt
 ) {
@@ -20,6 +21,7 @@ public record NotebookResponseDTO(
                 new BasicUser(notebook.getUser()),
                 notebook.getIcon(),
                 notebook.getTitle(),
+                notebook.isAnswerCacheEnabled(),
                 notebook.getCreatedAt(),
                 notebook.getUpdatedAt()
         );
@@ -8,6 +8,7 @@ public record NotebookUpdateDTO(
         @NotNull
         String id,
         String icon,
-        String title
+        String title,
+        Boolean answerCacheEnabled
 ) {
 }
@@ -0,0 +1,12 @@
+package com.francids.escruta.backend.dtos.source;
+
+import java.util.UUID;
+
+public record SourceContentInfoDTO(
+        UUID id,
+        Integer contentLength,
+        String contentHash
+) {
+    public static final String CONTENT_OFFSET_HEADER = "X-Content-Offset";
+    public static final String CONTENT_TOTAL_HEADER = "X-Content-Total";
+}
@@ -12,6 +12,9 @@ public record SourceResponseDTO(
         String title,
         boolean isConvertedByAi,
         String link,
+        Source.StageStatus conversionStatus,
+        Source.StageStatus summaryStatus,
+        Source.StageStatus indexingStatus,
         Timestamp createdAt,
         Timestamp updatedAt
 ) {
@@ -24,6 +27,9 @@ public record SourceResponseDTO(
                 source.getTitle(),
                 source.isConvertedByAi(),
                 source.getLink(),
+                source.getConversionStatus(),
+                source.getSummaryStatus(),
+                source.getIndexingStatus(),
                 source.getCreatedAt(),
                 source.getUpdatedAt()
         );
@@ -0,0 +1,13 @@
+package com.francids.escruta.backend.dtos.source;
+
+import com.francids.escruta.backend.entities.Source;
+
+import java.util.UUID;
+
+public record SourceStatusDTO(
+        UUID id,
+        Source.StageStatus conversionStatus,
+        Source.StageStatus summaryStatus,
+        Source.StageStatus indexingStatus
+) {
+}
@@ -0,0 +1,13 @@
+package com.francids.escruta.backend.dtos.source;
+
+import com.francids.escruta.backend.entities.Source;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+public record SourceVersionDTO(
+        UUID id,
+        Timestamp updatedAt,
+        Source.StageStatus indexingStatus
+) {
+}
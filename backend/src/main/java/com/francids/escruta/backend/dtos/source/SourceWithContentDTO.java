@@ -14,20 +14,26 @@ public record SourceWithContentDTO(
         boolean isConvertedByAi,
         String summary,
         String link,
+        Source.StageStatus conversionStatus,
+        Source.StageStatus summaryStatus,
+        Source.StageStatus indexingStatus,
         Timestamp createdAt,
         Timestamp updatedAt
 ) {
-    public SourceWithContentDTO(Source source) {
+    public SourceWithContentDTO(Source source, String content) {
         this(
                 source.getId(),
                 source.getNotebook()
                         .getId(),
                 source.getIcon(),
                 source.getTitle(),
-                source.getContent(),
+                content,
                 source.isConvertedByAi(),
                 source.getSummary(),
                 source.getLink(),
+                source.getConversionStatus(),
+                source.getSummaryStatus(),
+                source.getIndexingStatus(),
                 source.getCreatedAt(),
                 source.getUpdatedAt()
         );
@@ -0,0 +1,88 @@
+package com.francids.escruta.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Table(
+        name = "background_jobs",
+        indexes = {
+                @Index(columnList = "status, next_attempt_at"),
+                @Index(columnList = "status, updated_at"),
+                @Index(columnList = "user_id, status"),
+                @Index(columnList = "source_id"),
+                @Index(columnList = "notebook_id")
+        }
+)
+@Entity
+public class BackgroundJob {
+    public enum Type {
+        CONVERT_SOURCE,
+        SUMMARIZE_SOURCE,
+        INDEX_SOURCE,
+        PURGE_NOTEBOOK_VECTORS
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private UUID notebookId;
+
+    @Column()
+    private UUID sourceId;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private int checkpoint = 0;
+
+    @Column(nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @Column()
+    private String lockedBy;
+
+    @Column()
+    private Timestamp lockedUntil;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+
+    @UpdateTimestamp
+    @Column()
+    private Timestamp updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.francids.escruta.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+@Getter
+@Setter
+@Table(name = "embedding_cache")
+@Entity
+@IdClass(EmbeddingCacheEntry.Key.class)
+public class EmbeddingCacheEntry {
+    @Id
+    @Column(nullable = false)
+    private String model;
+
+    @Id
+    @Column(nullable = false)
+    private int dimensions;
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private float[] embedding;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String model;
+        private int dimensions;
+        private String contentHash;
+    }
+}
@@ -11,7 +11,10 @@ import java.util.UUID;
 
 @Getter
 @Setter
-@Table(name = "notes")
+@Table(
+        name = "notes",
+        indexes = @Index(columnList = "notebook_id, updated_at, id")
+)
 @Entity
 public class Note {
     @Id
@@ -19,11 +22,11 @@ public class Note {
     @Column(nullable = false)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private Notebook notebook;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn()
     private Source source;
 
@@ -5,14 +5,19 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
 import java.util.UUID;
 
 @Getter
 @Setter
-@Table(name = "notebooks")
+@Table(
+        name = "notebooks",
+        indexes = @Index(columnList = "user_id, updated_at, id")
+)
 @Entity
 @RequiredArgsConstructor
 public class Notebook {
@@ -21,7 +26,7 @@ public class Notebook {
     @Column(nullable = false)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private User user;
 
@@ -34,6 +39,19 @@ public class Notebook {
     @Column(columnDefinition = "TEXT")
     private String summary;
 
+    @Column(length = 64)
+    private String summaryFingerprint;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column()
+    private String[] exampleQuestions;
+
+    @Column(length = 64)
+    private String exampleQuestionsFingerprint;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean answerCacheEnabled = false;
+
     @CreationTimestamp
     @Column(updatable = false)
     private Timestamp createdAt;
@@ -4,22 +4,35 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
 import java.util.UUID;
 
 @Getter
 @Setter
-@Table(name = "sources")
+@Table(
+        name = "sources",
+        indexes = @Index(columnList = "notebook_id, updated_at, id")
+)
 @Entity
 public class Source {
+    public enum StageStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        SKIPPED
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(nullable = false)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private Notebook notebook;
 
@@ -29,8 +42,11 @@ public class Source {
     @Column(nullable = false)
     private String title;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String content;
+    @Column()
+    private Integer contentLength;
+
+    @Column(length = 64)
+    private String contentHash;
 
     @Column(nullable = false)
     private boolean isConvertedByAi = false;
@@ -41,6 +57,22 @@ public class Source {
     @Column()
     private String link;
 
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column()
+    private int[] pageOffsets;
+
+    @Enumerated(EnumType.STRING)
+    @Column()
+    private StageStatus conversionStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column()
+    private StageStatus summaryStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column()
+    private StageStatus indexingStatus;
+
     @CreationTimestamp
     @Column(updatable = false)
     private Timestamp createdAt;
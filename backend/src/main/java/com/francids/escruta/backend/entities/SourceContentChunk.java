@@ -0,0 +1,74 @@
+package com.francids.escruta.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Table(name = "source_content_chunks")
+@Entity
+@IdClass(SourceContentChunk.Key.class)
+public class SourceContentChunk implements Persistable<SourceContentChunk.Key> {
+    @Id
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Id
+    @Column(nullable = false)
+    private int chunkIndex;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Source source;
+
+    @Column(nullable = false)
+    private int charOffset;
+
+    @Column(nullable = false)
+    private int charLength;
+
+    @Column(nullable = false)
+    private int rawLength;
+
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public Key getId() {
+        return new Key(sourceId, chunkIndex);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID sourceId;
+        private int chunkIndex;
+    }
+}
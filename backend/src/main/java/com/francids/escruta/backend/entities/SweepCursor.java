@@ -0,0 +1,25 @@
+package com.francids.escruta.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Table(name = "sweep_cursors")
+@Entity
+public class SweepCursor {
+    @Id
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private UUID lastId;
+
+    @UpdateTimestamp
+    private Timestamp updatedAt;
+}
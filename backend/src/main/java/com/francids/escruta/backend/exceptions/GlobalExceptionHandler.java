@@ -30,6 +30,13 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    // Thrown by streamed source content before any byte is written, so the response can still carry the status.
+    @ExceptionHandler(SourceContentChangedException.class)
+    public ResponseEntity<String> handleSourceContentChanged(SourceContentChangedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<String> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
         if (ex.getName()
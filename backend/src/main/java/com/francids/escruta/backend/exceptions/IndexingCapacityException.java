@@ -0,0 +1,14 @@
+package com.francids.escruta.backend.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class IndexingCapacityException extends RuntimeException {
+    private final HttpStatus status;
+
+    public IndexingCapacityException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
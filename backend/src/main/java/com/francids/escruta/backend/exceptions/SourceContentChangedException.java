@@ -0,0 +1,9 @@
+package com.francids.escruta.backend.exceptions;
+
+import java.util.UUID;
+
+public class SourceContentChangedException extends RuntimeException {
+    public SourceContentChangedException(UUID sourceId) {
+        super("The content of source " + sourceId + " changed while it was read");
+    }
+}
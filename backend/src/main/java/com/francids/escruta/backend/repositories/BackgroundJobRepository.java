@@ -0,0 +1,99 @@
+package com.francids.escruta.backend.repositories;
+
+import com.francids.escruta.backend.entities.BackgroundJob;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BackgroundJobRepository extends CrudRepository<BackgroundJob, UUID> {
+    @Query(value = """
+            SELECT * FROM background_jobs j
+            WHERE ((j.status = 'PENDING' AND j.next_attempt_at <= :now)
+                    OR (j.status = 'RUNNING' AND j.locked_until < :now))
+              AND (SELECT count(*) FROM background_jobs r
+                   WHERE r.user_id = j.user_id
+                     AND r.status = 'RUNNING'
+                     AND r.locked_until >= :now) < :maxRunningPerUser
+            ORDER BY j.next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<BackgroundJob> findClaimable(Timestamp now, int maxRunningPerUser, int limit);
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('background_jobs'), hashtext(CAST(:userId AS text)))",
+            nativeQuery = true)
+    boolean tryLockUser(UUID userId);
+
+    long countByUserIdAndStatusAndLockedUntilGreaterThanEqual(
+            UUID userId,
+            BackgroundJob.Status status,
+            Timestamp lockedUntil
+    );
+
+    long countByStatusIn(Collection<BackgroundJob.Status> statuses);
+
+    long countByUserIdAndStatusIn(UUID userId, Collection<BackgroundJob.Status> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j SET j.checkpoint = :checkpoint, j.lockedUntil = :lockedUntil
+            WHERE j.id = :id AND j.lockedBy = :workerId
+              AND j.status = com.francids.escruta.backend.entities.BackgroundJob.Status.RUNNING
+            """)
+    int updateCheckpoint(UUID id, String workerId, int checkpoint, Timestamp lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j SET j.lockedUntil = :lockedUntil
+            WHERE j.id = :id AND j.lockedBy = :workerId
+              AND j.status = com.francids.escruta.backend.entities.BackgroundJob.Status.RUNNING
+            """)
+    int renewLease(UUID id, String workerId, Timestamp lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.status = com.francids.escruta.backend.entities.BackgroundJob.Status.CANCELLED,
+                j.updatedAt = CURRENT_TIMESTAMP
+            WHERE j.sourceId = :sourceId AND j.status IN (
+                com.francids.escruta.backend.entities.BackgroundJob.Status.PENDING,
+                com.francids.escruta.backend.entities.BackgroundJob.Status.RUNNING
+            )
+            """)
+    int cancelBySourceId(UUID sourceId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE BackgroundJob j
+            SET j.status = com.francids.escruta.backend.entities.BackgroundJob.Status.CANCELLED,
+                j.updatedAt = CURRENT_TIMESTAMP
+            WHERE j.notebookId = :notebookId AND j.status IN (
+                com.francids.escruta.backend.entities.BackgroundJob.Status.PENDING,
+                com.francids.escruta.backend.entities.BackgroundJob.Status.RUNNING
+            )
+            """)
+    int cancelByNotebookId(UUID notebookId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM background_jobs WHERE id IN (
+                SELECT id FROM background_jobs
+                WHERE status IN ('COMPLETED', 'FAILED', 'CANCELLED') AND updated_at < :before
+                LIMIT :limit
+            )
+            """, nativeQuery = true)
+    int deleteFinishedBefore(Timestamp before, int limit);
+}
@@ -0,0 +1,17 @@
+package com.francids.escruta.backend.repositories;
+
+import com.francids.escruta.backend.entities.EmbeddingCacheEntry;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmbeddingCacheRepository extends CrudRepository<EmbeddingCacheEntry, EmbeddingCacheEntry.Key> {
+    List<EmbeddingCacheEntry> findByModelAndDimensionsAndContentHashIn(
+            String model,
+            int dimensions,
+            Collection<String> contentHashes
+    );
+}
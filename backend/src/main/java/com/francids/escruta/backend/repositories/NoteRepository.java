@@ -1,13 +1,48 @@
 package com.francids.escruta.backend.repositories;
 
+import com.francids.escruta.backend.dtos.note.NoteResponseDTO;
 import com.francids.escruta.backend.entities.Note;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface NoteRepository extends CrudRepository<Note, UUID> {
-    List<Note> findByNotebookId(UUID notebookId);
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.note.NoteResponseDTO(
+                n.id, n.notebook.id, n.source.id, n.icon, n.title, n.createdAt, n.updatedAt
+            )
+            FROM Note n WHERE n.notebook.id = :notebookId
+            """)
+    List<NoteResponseDTO> findResponsesByNotebookId(UUID notebookId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.note.NoteResponseDTO(
+                n.id, n.notebook.id, n.source.id, n.icon, n.title, n.createdAt, n.updatedAt
+            )
+            FROM Note n WHERE n.notebook.id = :notebookId
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<NoteResponseDTO> findResponsePageByNotebookId(UUID notebookId, Limit limit);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.note.NoteResponseDTO(
+                n.id, n.notebook.id, n.source.id, n.icon, n.title, n.createdAt, n.updatedAt
+            )
+            FROM Note n WHERE n.notebook.id = :notebookId
+              AND n.updatedAt <= :updatedAt
+              AND (n.updatedAt < :updatedAt OR n.id < :id)
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<NoteResponseDTO> findResponsePageByNotebookIdAfter(
+            UUID notebookId,
+            Timestamp updatedAt,
+            UUID id,
+            Limit limit
+    );
 }
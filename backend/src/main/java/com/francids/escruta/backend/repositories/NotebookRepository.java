@@ -1,23 +1,60 @@
 package com.francids.escruta.backend.repositories;
 
 import com.francids.escruta.backend.entities.Notebook;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface NotebookRepository extends CrudRepository<Notebook, UUID> {
+    @EntityGraph(attributePaths = "user")
     List<Notebook> findByUserId(UUID userId);
 
+    @EntityGraph(attributePaths = "user")
+    Optional<Notebook> findWithUserById(UUID id);
+
+    @Query("""
+            SELECT n FROM Notebook n JOIN FETCH n.user
+            WHERE n.user.id = :userId
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<Notebook> findPageByUserId(UUID userId, Limit limit);
+
+    @Query("""
+            SELECT n FROM Notebook n JOIN FETCH n.user
+            WHERE n.user.id = :userId
+              AND n.updatedAt <= :updatedAt
+              AND (n.updatedAt < :updatedAt OR n.id < :id)
+            ORDER BY n.updatedAt DESC, n.id DESC
+            """)
+    List<Notebook> findPageByUserIdAfter(UUID userId, Timestamp updatedAt, UUID id, Limit limit);
+
     boolean existsByIdAndUserId(UUID notebookId, UUID userId);
 
+    boolean existsByIdAndAnswerCacheEnabledTrue(UUID notebookId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Notebook n SET n.summary = :summary, n.summaryFingerprint = :fingerprint
+            WHERE n.id = :notebookId
+            """)
+    void updateSummary(UUID notebookId, String summary, String fingerprint);
+
     @Transactional
     @Modifying
-    @Query("UPDATE Notebook n SET n.summary = :summary WHERE n.id = :notebookId")
-    void updateSummary(UUID notebookId, String summary);
+    @Query("""
+            UPDATE Notebook n SET n.exampleQuestions = :questions, n.exampleQuestionsFingerprint = :fingerprint
+            WHERE n.id = :notebookId
+            """)
+    void updateExampleQuestions(UUID notebookId, String[] questions, String fingerprint);
 }
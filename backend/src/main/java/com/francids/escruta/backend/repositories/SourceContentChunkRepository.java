@@ -0,0 +1,21 @@
+package com.francids.escruta.backend.repositories;
+
+import com.francids.escruta.backend.entities.SourceContentChunk;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SourceContentChunkRepository extends CrudRepository<SourceContentChunk, SourceContentChunk.Key> {
+    List<SourceContentChunk> findBySourceIdOrderByChunkIndex(UUID sourceId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SourceContentChunk c WHERE c.sourceId = :sourceId")
+    void deleteBySourceId(UUID sourceId);
+}
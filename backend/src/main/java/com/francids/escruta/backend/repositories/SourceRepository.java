@@ -1,15 +1,123 @@
 package com.francids.escruta.backend.repositories;
 
+import com.francids.escruta.backend.dtos.source.SourceContentInfoDTO;
+import com.francids.escruta.backend.dtos.source.SourceResponseDTO;
+import com.francids.escruta.backend.dtos.source.SourceStatusDTO;
+import com.francids.escruta.backend.dtos.source.SourceVersionDTO;
 import com.francids.escruta.backend.entities.Source;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SourceRepository extends CrudRepository<Source, UUID> {
-    List<Source> findByNotebookId(UUID notebookId);
-
     boolean existsByNotebookId(UUID notebookId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceResponseDTO(
+                s.id, s.notebook.id, s.icon, s.title, s.isConvertedByAi, s.link,
+                s.conversionStatus, s.summaryStatus, s.indexingStatus, s.createdAt, s.updatedAt
+            )
+            FROM Source s WHERE s.notebook.id = :notebookId
+            """)
+    List<SourceResponseDTO> findResponsesByNotebookId(UUID notebookId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceResponseDTO(
+                s.id, s.notebook.id, s.icon, s.title, s.isConvertedByAi, s.link,
+                s.conversionStatus, s.summaryStatus, s.indexingStatus, s.createdAt, s.updatedAt
+            )
+            FROM Source s WHERE s.notebook.id = :notebookId
+            ORDER BY s.updatedAt DESC, s.id DESC
+            """)
+    List<SourceResponseDTO> findResponsePageByNotebookId(UUID notebookId, Limit limit);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceResponseDTO(
+                s.id, s.notebook.id, s.icon, s.title, s.isConvertedByAi, s.link,
+                s.conversionStatus, s.summaryStatus, s.indexingStatus, s.createdAt, s.updatedAt
+            )
+            FROM Source s WHERE s.notebook.id = :notebookId
+              AND s.updatedAt <= :updatedAt
+              AND (s.updatedAt < :updatedAt OR s.id < :id)
+            ORDER BY s.updatedAt DESC, s.id DESC
+            """)
+    List<SourceResponseDTO> findResponsePageByNotebookIdAfter(
+            UUID notebookId,
+            Timestamp updatedAt,
+            UUID id,
+            Limit limit
+    );
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceResponseDTO(
+                s.id, s.notebook.id, s.icon, s.title, s.isConvertedByAi, s.link,
+                s.conversionStatus, s.summaryStatus, s.indexingStatus, s.createdAt, s.updatedAt
+            )
+            FROM Source s WHERE s.id = :sourceId AND s.notebook.id = :notebookId
+            """)
+    Optional<SourceResponseDTO> findResponse(UUID notebookId, UUID sourceId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceVersionDTO(
+                s.id, s.updatedAt, s.indexingStatus
+            )
+            FROM Source s WHERE s.notebook.id = :notebookId ORDER BY s.id
+            """)
+    List<SourceVersionDTO> findVersionsByNotebookId(UUID notebookId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceStatusDTO(
+                s.id, s.conversionStatus, s.summaryStatus, s.indexingStatus
+            )
+            FROM Source s WHERE s.id = :sourceId AND s.notebook.id = :notebookId
+            """)
+    Optional<SourceStatusDTO> findStatus(UUID notebookId, UUID sourceId);
+
+    @Query("""
+            SELECT new com.francids.escruta.backend.dtos.source.SourceContentInfoDTO(
+                s.id, s.contentLength, s.contentHash
+            )
+            FROM Source s WHERE s.id = :sourceId AND s.notebook.id = :notebookId
+            """)
+    Optional<SourceContentInfoDTO> findContentInfo(UUID notebookId, UUID sourceId);
+
+    @Query("SELECT s.contentHash FROM Source s WHERE s.id = :sourceId")
+    Optional<String> findContentHash(UUID sourceId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Source s SET s.contentLength = :contentLength, s.contentHash = :contentHash
+            WHERE s.id = :sourceId
+            """)
+    void updateContentInfo(UUID sourceId, int contentLength, String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Source s SET s.summary = :summary WHERE s.id = :sourceId")
+    void updateSummary(UUID sourceId, String summary);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Source s SET s.conversionStatus = :status WHERE s.id = :sourceId")
+    void updateConversionStatus(UUID sourceId, Source.StageStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Source s SET s.summaryStatus = :status WHERE s.id = :sourceId")
+    void updateSummaryStatus(UUID sourceId, Source.StageStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Source s SET s.indexingStatus = :status WHERE s.id = :sourceId")
+    void updateIndexingStatus(UUID sourceId, Source.StageStatus status);
 }
@@ -0,0 +1,289 @@
+package com.francids.escruta.backend.repositories;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class VectorChunkRepository {
+    public enum Quantization {NONE, HALFVEC, BINARY}
+
+    public record OrphanSweepBatch(
+            int deleted,
+            boolean finished
+    ) {
+    }
+
+    private static final String ORPHAN_SWEEP = "vector_store_orphans";
+    private static final UUID SWEEP_START = new UUID(0, 0);
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int dimensions;
+    private final Quantization quantization;
+    private final int rescoreFactor;
+    private final int efSearch;
+    private final String iterativeScan;
+
+    private volatile boolean scopeColumnsReady;
+
+    public VectorChunkRepository(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${spring.ai.vectorstore.pgvector.dimensions}") int dimensions,
+            @Value("${spring.ai.vectorstore.pgvector.quantization.type}") String quantization,
+            @Value("${spring.ai.vectorstore.pgvector.quantization.rescore-factor}") int rescoreFactor,
+            @Value("${spring.ai.vectorstore.pgvector.quantization.ef-search}") int efSearch,
+            @Value("${spring.ai.vectorstore.pgvector.quantization.iterative-scan}") String iterativeScan
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dimensions = dimensions;
+        this.quantization = Quantization.valueOf(quantization.trim()
+                .toUpperCase(Locale.ROOT));
+        this.rescoreFactor = Math.max(rescoreFactor, 1);
+        this.efSearch = efSearch;
+        this.iterativeScan = iterativeScan;
+    }
+
+    public void markScopeColumnsReady() {
+        scopeColumnsReady = true;
+    }
+
+    public Quantization getQuantization() {
+        return quantization;
+    }
+
+    public String getQuantizedExpression() {
+        return switch (quantization) {
+            case HALFVEC -> "(embedding::halfvec(%d))".formatted(dimensions);
+            case BINARY -> "(binary_quantize(embedding)::bit(%d))".formatted(dimensions);
+            case NONE -> "embedding";
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public List<Document> searchByNotebookId(
+            UUID notebookId,
+            float[] embedding,
+            int topK,
+            double similarityThreshold
+    ) {
+        PGvector vector = new PGvector(embedding);
+        if (quantization == Quantization.NONE) {
+            return jdbcTemplate.query(
+                    """
+                            SELECT id, content, metadata::text AS metadata, embedding <=> ? AS distance
+                            FROM vector_store
+                            WHERE %s = ? AND embedding <=> ? <= ?
+                            ORDER BY distance
+                            LIMIT ?
+                            """.formatted(notebookIdColumn()),
+                    this::toScoredDocument,
+                    vector,
+                    notebookId,
+                    vector,
+                    1 - similarityThreshold,
+                    topK
+            );
+        }
+
+        // Candidates come from the quantized HNSW index when the planner prefers it over the notebook btree. Iterative
+        // scans keep the index returning rows until enough of them pass the notebook filter.
+        int candidates = topK * rescoreFactor;
+        jdbcTemplate.queryForList(
+                "SELECT set_config('hnsw.ef_search', ?, true), set_config('hnsw.iterative_scan', ?, true)",
+                String.valueOf(Math.max(efSearch, candidates)),
+                iterativeScan
+        );
+        return jdbcTemplate.query(
+                """
+                        WITH candidates AS MATERIALIZED (
+                            SELECT id FROM vector_store
+                            WHERE %s = ?
+                            ORDER BY %s
+                            LIMIT ?
+                        )
+                        SELECT v.id, v.content, v.metadata::text AS metadata, v.embedding <=> ? AS distance
+                        FROM candidates c
+                        JOIN vector_store v ON v.id = c.id
+                        WHERE v.embedding <=> ? <= ?
+                        ORDER BY distance
+                        LIMIT ?
+                        """.formatted(notebookIdColumn(), quantizedDistance()),
+                this::toScoredDocument,
+                notebookId,
+                vector,
+                candidates,
+                vector,
+                vector,
+                1 - similarityThreshold,
+                topK
+        );
+    }
+
+    public List<Document> searchTextByNotebookId(UUID notebookId, String tsQuery, int limit) {
+        return jdbcTemplate.query(
+                """
+                        SELECT id, content, metadata::text AS metadata
+                        FROM vector_store, to_tsquery('simple', ?) query
+                        WHERE %s = ?
+                          AND to_tsvector('simple', content) @@ query
+                        ORDER BY ts_rank_cd(to_tsvector('simple', content), query) DESC
+                        LIMIT ?
+                        """.formatted(notebookIdColumn()),
+                (rs, rowNum) -> toDocument(rs),
+                tsQuery,
+                notebookId,
+                limit
+        );
+    }
+
+    public int countByNotebookId(UUID notebookId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vector_store WHERE %s = ?".formatted(notebookIdColumn()),
+                Integer.class,
+                notebookId
+        );
+        return count != null ?
+                count :
+                0;
+    }
+
+    public void forEachByNotebookId(UUID notebookId, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+                """
+                        SELECT id, content, metadata::text AS metadata, embedding::real[] AS embedding
+                        FROM vector_store WHERE %s = ?
+                        """.formatted(notebookIdColumn()),
+                handler,
+                notebookId
+        );
+    }
+
+    public int deleteBySourceId(UUID sourceId) {
+        return jdbcTemplate.update("DELETE FROM vector_store WHERE %s = ?".formatted(sourceIdColumn()), sourceId);
+    }
+
+    public int deleteByNotebookId(UUID notebookId) {
+        return jdbcTemplate.update("DELETE FROM vector_store WHERE %s = ?".formatted(notebookIdColumn()), notebookId);
+    }
+
+    @Transactional
+    public OrphanSweepBatch deleteOrphans(int batchSize) {
+        jdbcTemplate.update(
+                "INSERT INTO sweep_cursors (name, last_id, updated_at) VALUES (?, ?, now()) ON CONFLICT DO NOTHING",
+                ORPHAN_SWEEP,
+                SWEEP_START
+        );
+        List<UUID> cursor = jdbcTemplate.queryForList(
+                "SELECT last_id FROM sweep_cursors WHERE name = ? FOR UPDATE SKIP LOCKED",
+                UUID.class,
+                ORPHAN_SWEEP
+        );
+        if (cursor.isEmpty()) {
+            return new OrphanSweepBatch(0, true);
+        }
+
+        List<UUID> last = jdbcTemplate.queryForList(
+                """
+                        SELECT id FROM (SELECT id FROM vector_store WHERE id > ? ORDER BY id LIMIT ?) batch
+                        ORDER BY id DESC LIMIT 1
+                        """,
+                UUID.class,
+                cursor.getFirst(),
+                batchSize
+        );
+        if (last.isEmpty()) {
+            moveSweepCursor(SWEEP_START);
+            return new OrphanSweepBatch(0, true);
+        }
+
+        int deleted = jdbcTemplate.update(
+                """
+                        DELETE FROM vector_store
+                        WHERE id > ? AND id <= ?
+                          AND ((%1$s IS NOT NULL
+                                  AND NOT EXISTS (SELECT 1 FROM notebooks n WHERE n.id = %1$s))
+                               OR (%2$s IS NOT NULL
+                                  AND NOT EXISTS (SELECT 1 FROM sources s WHERE s.id = %2$s)))
+                        """.formatted(notebookIdColumn(), sourceIdColumn()),
+                cursor.getFirst(),
+                last.getFirst()
+        );
+        moveSweepCursor(last.getFirst());
+        return new OrphanSweepBatch(deleted, false);
+    }
+
+    private void moveSweepCursor(UUID lastId) {
+        jdbcTemplate.update(
+                "UPDATE sweep_cursors SET last_id = ?, updated_at = now() WHERE name = ?",
+                lastId,
+                ORPHAN_SWEEP
+        );
+    }
+
+    public Document toDocument(ResultSet rs) throws SQLException {
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(parseMetadata(rs.getString("metadata")))
+                .build();
+    }
+
+    public Map<String, Object> parseMetadata(String metadata) {
+        try {
+            return objectMapper.readValue(metadata, METADATA_TYPE);
+        } catch (Exception e) {
+            return Map.of();
+        }
+    }
+
+    private String notebookIdColumn() {
+        return scopeColumnsReady ?
+                "notebook_id" :
+                "(metadata->>'notebookId')::uuid";
+    }
+
+    private String sourceIdColumn() {
+        return scopeColumnsReady ?
+                "source_id" :
+                "(metadata->>'sourceId')::uuid";
+    }
+
+    private String quantizedDistance() {
+        return switch (quantization) {
+            case HALFVEC -> "%s <=> ?::halfvec(%d)".formatted(getQuantizedExpression(), dimensions);
+            case BINARY -> "%s <~> binary_quantize(?::vector)::bit(%d)".formatted(getQuantizedExpression(), dimensions);
+            case NONE -> "embedding <=> ?";
+        };
+    }
+
+    private Document toScoredDocument(ResultSet rs, int rowNum) throws SQLException {
+        double distance = rs.getDouble("distance");
+        Map<String, Object> metadata = new HashMap<>(parseMetadata(rs.getString("metadata")));
+        metadata.put("distance", (float) distance);
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(metadata)
+                .score(1 - distance)
+                .build();
+    }
+}
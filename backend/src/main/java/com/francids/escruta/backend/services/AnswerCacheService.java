@@ -0,0 +1,150 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.dtos.ChatReplyMessage;
+import com.francids.escruta.backend.repositories.NotebookRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class AnswerCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(AnswerCacheService.class);
+
+    public record CachedAnswer(
+            String content,
+            List<ChatReplyMessage.CitedSource> citedSources
+    ) {
+    }
+
+    private record Entry(
+            float[] embedding,
+            CachedAnswer answer
+    ) {
+    }
+
+    private static final class NotebookAnswers {
+        private final String fingerprint;
+        private final Deque<Entry> entries = new ArrayDeque<>();
+
+        private NotebookAnswers(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final NotebookRepository notebookRepository;
+    private final NotebookInsightService notebookInsightService;
+    private final EmbeddingModel embeddingModel;
+    private final Cache<UUID, NotebookAnswers> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final double similarityThreshold;
+    private final int maxEntriesPerNotebook;
+
+    public AnswerCacheService(
+            NotebookRepository notebookRepository,
+            NotebookInsightService notebookInsightService,
+            EmbeddingModel embeddingModel,
+            MeterRegistry meterRegistry,
+            @Value("${answer-cache.similarity-threshold}") double similarityThreshold,
+            @Value("${answer-cache.max-notebooks}") long maxNotebooks,
+            @Value("${answer-cache.max-entries-per-notebook}") int maxEntriesPerNotebook,
+            @Value("${answer-cache.ttl}") long ttl
+    ) {
+        this.notebookRepository = notebookRepository;
+        this.notebookInsightService = notebookInsightService;
+        this.embeddingModel = embeddingModel;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerNotebook = maxEntriesPerNotebook;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxNotebooks)
+                .expireAfterAccess(Duration.ofMillis(ttl))
+                .build();
+        this.hits = meterRegistry.counter("chat.answer.cache", "result", "hit");
+        this.misses = meterRegistry.counter("chat.answer.cache", "result", "miss");
+    }
+
+    public CachedAnswer find(UUID notebookId, String question) {
+        if (!notebookRepository.existsByIdAndAnswerCacheEnabledTrue(notebookId)) {
+            return null;
+        }
+
+        NotebookAnswers answers = getCurrentAnswers(notebookId);
+        float[] embedding = embeddingModel.embed(question);
+        CachedAnswer best = null;
+        double bestSimilarity = similarityThreshold;
+        synchronized (answers) {
+            for (Entry entry : answers.entries) {
+                double similarity = cosineSimilarity(embedding, entry.embedding());
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    best = entry.answer();
+                }
+            }
+        }
+
+        if (best != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return best;
+    }
+
+    public void put(UUID notebookId, String question, CachedAnswer answer) {
+        try {
+            if (!notebookRepository.existsByIdAndAnswerCacheEnabledTrue(notebookId)) {
+                return;
+            }
+
+            NotebookAnswers answers = getCurrentAnswers(notebookId);
+            Entry entry = new Entry(embeddingModel.embed(question), answer);
+            synchronized (answers) {
+                if (answers.entries.size() >= maxEntriesPerNotebook) {
+                    answers.entries.removeFirst();
+                }
+                answers.entries.addLast(entry);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to cache answer for notebook {}: {}", notebookId, e.getMessage());
+        }
+    }
+
+    private NotebookAnswers getCurrentAnswers(UUID notebookId) {
+        String fingerprint = notebookInsightService.fingerprint(notebookId);
+        return cache.asMap()
+                .compute(notebookId, (id, current) -> current != null && current.fingerprint.equals(fingerprint) ?
+                        current :
+                        new NotebookAnswers(fingerprint));
+    }
+
+    private static double cosineSimilarity(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return -1;
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+}
@@ -0,0 +1,230 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.entities.BackgroundJob;
+import com.francids.escruta.backend.exceptions.IndexingCapacityException;
+import com.francids.escruta.backend.repositories.BackgroundJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BackgroundJobService {
+    private static final List<BackgroundJob.Status> PENDING_STATUSES = List.of(
+            BackgroundJob.Status.PENDING,
+            BackgroundJob.Status.RUNNING
+    );
+
+    private final BackgroundJobRepository backgroundJobRepository;
+
+    @Value("${jobs.lease-duration}")
+    private Duration leaseDuration;
+
+    @Value("${jobs.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${jobs.retry-backoff}")
+    private Duration retryBackoff;
+
+    @Value("${jobs.max-running-per-user}")
+    private int maxRunningPerUser;
+
+    @Value("${jobs.max-pending-per-user}")
+    private int maxPendingPerUser;
+
+    @Value("${jobs.max-pending}")
+    private int maxPending;
+
+    @Value("${jobs.retention}")
+    private Duration retention;
+
+    @Value("${jobs.prune-batch-size}")
+    private int pruneBatchSize;
+
+    @Transactional
+    public List<BackgroundJob> enqueueSourceJobs(
+            UUID userId,
+            UUID notebookId,
+            UUID sourceId,
+            List<BackgroundJob.Type> types
+    ) {
+        if (backgroundJobRepository.countByUserIdAndStatusIn(userId, PENDING_STATUSES) >= maxPendingPerUser) {
+            throw new IndexingCapacityException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many sources are already being processed for this user."
+            );
+        }
+        if (backgroundJobRepository.countByStatusIn(PENDING_STATUSES) >= maxPending) {
+            throw new IndexingCapacityException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "The processing queue is full. Please try again later."
+            );
+        }
+        return saveJobs(userId, notebookId, sourceId, types);
+    }
+
+    @Transactional
+    public List<BackgroundJob> enqueueFollowUps(BackgroundJob parent, List<BackgroundJob.Type> types) {
+        return saveJobs(parent.getUserId(), parent.getNotebookId(), parent.getSourceId(), types);
+    }
+
+    @Transactional
+    public BackgroundJob enqueueNotebookPurge(UUID userId, UUID notebookId) {
+        backgroundJobRepository.cancelByNotebookId(notebookId);
+        return saveJobs(userId, notebookId, null, List.of(BackgroundJob.Type.PURGE_NOTEBOOK_VECTORS)).getFirst();
+    }
+
+    private List<BackgroundJob> saveJobs(UUID userId, UUID notebookId, UUID sourceId, List<BackgroundJob.Type> types) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<BackgroundJob> jobs = types.stream()
+                .map(type -> {
+                    BackgroundJob job = new BackgroundJob();
+                    job.setType(type);
+                    job.setUserId(userId);
+                    job.setNotebookId(notebookId);
+                    job.setSourceId(sourceId);
+                    job.setNextAttemptAt(now);
+                    return job;
+                })
+                .toList();
+        backgroundJobRepository.saveAll(jobs);
+        return jobs;
+    }
+
+    @Transactional
+    public List<BackgroundJob> claim(String workerId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        Timestamp nowTimestamp = Timestamp.from(now);
+        Map<UUID, List<BackgroundJob>> candidatesByUser = new LinkedHashMap<>();
+        for (BackgroundJob job : backgroundJobRepository.findClaimable(nowTimestamp, maxRunningPerUser, limit)) {
+            candidatesByUser.computeIfAbsent(job.getUserId(), userId -> new ArrayList<>())
+                    .add(job);
+        }
+
+        List<BackgroundJob> jobs = new ArrayList<>();
+        for (Map.Entry<UUID, List<BackgroundJob>> candidates : candidatesByUser.entrySet()) {
+            UUID userId = candidates.getKey();
+            if (!backgroundJobRepository.tryLockUser(userId)) {
+                continue;
+            }
+            long running = backgroundJobRepository.countByUserIdAndStatusAndLockedUntilGreaterThanEqual(
+                    userId,
+                    BackgroundJob.Status.RUNNING,
+                    nowTimestamp
+            );
+            candidates.getValue()
+                    .stream()
+                    .limit(Math.max(maxRunningPerUser - running, 0))
+                    .forEach(jobs::add);
+        }
+
+        for (BackgroundJob job : jobs) {
+            job.setStatus(BackgroundJob.Status.RUNNING);
+            job.setLockedBy(workerId);
+            job.setLockedUntil(Timestamp.from(now.plus(leaseDuration)));
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        backgroundJobRepository.saveAll(jobs);
+        return jobs;
+    }
+
+    public boolean checkpoint(BackgroundJob job, String workerId, int checkpoint) {
+        Timestamp lockedUntil = Timestamp.from(Instant.now()
+                .plus(leaseDuration));
+        return backgroundJobRepository.updateCheckpoint(job.getId(), workerId, checkpoint, lockedUntil) > 0;
+    }
+
+    public boolean renewLease(BackgroundJob job, String workerId) {
+        Timestamp lockedUntil = Timestamp.from(Instant.now()
+                .plus(leaseDuration));
+        return backgroundJobRepository.renewLease(job.getId(), workerId, lockedUntil) > 0;
+    }
+
+    private static boolean isOwnedBy(BackgroundJob job, String workerId) {
+        return job.getStatus() == BackgroundJob.Status.RUNNING && workerId.equals(job.getLockedBy());
+    }
+
+    @Transactional
+    public boolean complete(BackgroundJob job, String workerId) {
+        return backgroundJobRepository.findById(job.getId())
+                .filter(current -> isOwnedBy(current, workerId))
+                .map(current -> {
+                    current.setStatus(BackgroundJob.Status.COMPLETED);
+                    current.setLockedBy(null);
+                    current.setLockedUntil(null);
+                    current.setLastError(null);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Transactional
+    public Optional<BackgroundJob.Status> fail(BackgroundJob job, String workerId, Exception error) {
+        return backgroundJobRepository.findById(job.getId())
+                .filter(current -> isOwnedBy(current, workerId))
+                .map(current -> {
+                    current.setLockedBy(null);
+                    current.setLockedUntil(null);
+                    current.setLastError(error.getMessage());
+                    if (current.getAttempts() >= maxAttempts) {
+                        current.setStatus(BackgroundJob.Status.FAILED);
+                        return current.getStatus();
+                    }
+                    Duration delay = retryBackoff.multipliedBy(1L << Math.min(current.getAttempts() - 1, 10));
+                    current.setStatus(BackgroundJob.Status.PENDING);
+                    current.setNextAttemptAt(Timestamp.from(Instant.now()
+                            .plus(delay)));
+                    return current.getStatus();
+                });
+    }
+
+    @Transactional
+    public void release(BackgroundJob job, String workerId) {
+        backgroundJobRepository.findById(job.getId())
+                .filter(current -> isOwnedBy(current, workerId))
+                .ifPresent(current -> {
+                    current.setStatus(BackgroundJob.Status.PENDING);
+                    current.setAttempts(current.getAttempts() - 1);
+                    current.setLockedBy(null);
+                    current.setLockedUntil(null);
+                });
+    }
+
+    public boolean isCancelled(BackgroundJob job) {
+        return backgroundJobRepository.findById(job.getId())
+                .map(current -> current.getStatus() == BackgroundJob.Status.CANCELLED)
+                .orElse(true);
+    }
+
+    public void cancelSourceJobs(UUID sourceId) {
+        backgroundJobRepository.cancelBySourceId(sourceId);
+    }
+
+    public int pruneFinished() {
+        Timestamp before = Timestamp.from(Instant.now()
+                .minus(retention));
+        int pruned = 0;
+        int batch;
+        do {
+            batch = backgroundJobRepository.deleteFinishedBefore(before, pruneBatchSize);
+            pruned += batch;
+        } while (batch == pruneBatchSize);
+        return pruned;
+    }
+}
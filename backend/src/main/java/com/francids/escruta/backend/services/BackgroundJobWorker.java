@@ -0,0 +1,159 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.entities.BackgroundJob;
+import com.francids.escruta.backend.entities.Source;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class BackgroundJobWorker {
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundJobWorker.class);
+
+    private final String workerId = UUID.randomUUID()
+            .toString();
+    private final BackgroundJobService backgroundJobService;
+    private final VectorIndexingService vectorIndexingService;
+    private final SourceIngestionService sourceIngestionService;
+    private final RetrievalService retrievalService;
+    private final ThreadPoolTaskExecutor indexingExecutor;
+    private final ScheduledExecutorService leaseRenewalScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform()
+                    .name("job-lease-renewal")
+                    .daemon()
+                    .factory()
+    );
+
+    @Value("${jobs.lease-renewal-interval}")
+    private Duration leaseRenewalInterval;
+
+    public BackgroundJobWorker(
+            BackgroundJobService backgroundJobService,
+            VectorIndexingService vectorIndexingService,
+            SourceIngestionService sourceIngestionService,
+            RetrievalService retrievalService,
+            @Qualifier("indexingExecutor") ThreadPoolTaskExecutor indexingExecutor
+    ) {
+        this.backgroundJobService = backgroundJobService;
+        this.vectorIndexingService = vectorIndexingService;
+        this.sourceIngestionService = sourceIngestionService;
+        this.retrievalService = retrievalService;
+        this.indexingExecutor = indexingExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.poll-interval}")
+    public void poll() {
+        int idleThreads = indexingExecutor.getMaxPoolSize() - indexingExecutor.getActiveCount() -
+                indexingExecutor.getQueueSize();
+
+        List<BackgroundJob> jobs;
+        try {
+            jobs = backgroundJobService.claim(workerId, idleThreads);
+        } catch (Exception e) {
+            logger.warn("Failed to claim background jobs: {}", e.getMessage());
+            return;
+        }
+
+        for (BackgroundJob job : jobs) {
+            try {
+                indexingExecutor.execute(() -> run(job));
+            } catch (TaskRejectedException e) {
+                backgroundJobService.release(job, workerId);
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${jobs.prune-interval}",
+            fixedDelayString = "${jobs.prune-interval}"
+    )
+    public void prune() {
+        try {
+            int pruned = backgroundJobService.pruneFinished();
+            if (pruned > 0) {
+                logger.info("Pruned {} finished background jobs", pruned);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to prune finished background jobs: {}", e.getMessage());
+        }
+    }
+
+    private void renewLease(BackgroundJob job) {
+        try {
+            if (!backgroundJobService.renewLease(job, workerId)) {
+                logger.debug("Background job {} ({}) is no longer leased by this worker", job.getId(), job.getType());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to renew the lease of background job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewalScheduler.shutdownNow();
+    }
+
+    private void run(BackgroundJob job) {
+        try {
+            sourceIngestionService.updateStageStatus(job, Source.StageStatus.RUNNING);
+            boolean completed;
+            ScheduledFuture<?> leaseRenewal = leaseRenewalScheduler.scheduleWithFixedDelay(
+                    () -> renewLease(job),
+                    leaseRenewalInterval.toMillis(),
+                    leaseRenewalInterval.toMillis(),
+                    TimeUnit.MILLISECONDS
+            );
+            try {
+                completed = switch (job.getType()) {
+                    case CONVERT_SOURCE -> sourceIngestionService.convert(job, workerId);
+                    case SUMMARIZE_SOURCE -> sourceIngestionService.summarize(job, workerId);
+                    case INDEX_SOURCE -> {
+                        vectorIndexingService.indexSource(job, workerId);
+                        yield backgroundJobService.complete(job, workerId);
+                    }
+                    case PURGE_NOTEBOOK_VECTORS -> {
+                        retrievalService.deleteIndexedNotebook(job.getNotebookId());
+                        yield backgroundJobService.complete(job, workerId);
+                    }
+                };
+            } finally {
+                leaseRenewal.cancel(false);
+            }
+
+            if (completed) {
+                sourceIngestionService.updateStageStatus(job, Source.StageStatus.COMPLETED);
+            } else {
+                logger.info("Background job {} ({}) is no longer owned by this worker", job.getId(), job.getType());
+            }
+        } catch (Exception e) {
+            logger.warn(
+                    "Background job {} ({}) failed on attempt {}: {}",
+                    job.getId(),
+                    job.getType(),
+                    job.getAttempts(),
+                    e.getMessage()
+            );
+            backgroundJobService.fail(job, workerId, e)
+                    .ifPresent(status -> sourceIngestionService.updateStageStatus(
+                            job,
+                            status == BackgroundJob.Status.FAILED ?
+                                    Source.StageStatus.FAILED :
+                                    Source.StageStatus.PENDING
+                    ));
+        }
+    }
+}
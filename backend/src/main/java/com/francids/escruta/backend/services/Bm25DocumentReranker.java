@@ -0,0 +1,141 @@
+package com.francids.escruta.backend.services;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class Bm25DocumentReranker implements DocumentPostProcessor {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final int topK;
+    private final double lexicalWeight;
+
+    public Bm25DocumentReranker(int topK, double lexicalWeight) {
+        this.topK = topK;
+        this.lexicalWeight = lexicalWeight;
+    }
+
+    @Override
+    public List<Document> process(Query query, List<Document> documents) {
+        String[] terms = tokenize(query.text());
+        int documentCount = documents.size();
+        if (terms.length == 0 || documentCount <= 1) {
+            return documents.size() > topK ?
+                    List.copyOf(documents.subList(0, topK)) :
+                    documents;
+        }
+
+        int termCount = terms.length;
+        int[] frequencies = new int[documentCount * termCount];
+        int[] lengths = new int[documentCount];
+        long totalLength = 0;
+        for (int d = 0; d < documentCount; d++) {
+            lengths[d] = countTerms(documents.get(d)
+                    .getText(), terms, frequencies, d * termCount);
+            totalLength += lengths[d];
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+        double[] idf = new double[termCount];
+        for (int t = 0; t < termCount; t++) {
+            int documentFrequency = 0;
+            for (int d = 0; d < documentCount; d++) {
+                if (frequencies[d * termCount + t] > 0) {
+                    documentFrequency++;
+                }
+            }
+            idf[t] = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        double[] scores = new double[documentCount];
+        double maxScore = 0;
+        for (int d = 0; d < documentCount; d++) {
+            double norm = K1 * (1 - B + B * lengths[d] / averageLength);
+            double score = 0;
+            for (int t = 0; t < termCount; t++) {
+                int frequency = frequencies[d * termCount + t];
+                if (frequency > 0) {
+                    score += idf[t] * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+            scores[d] = score;
+            maxScore = Math.max(maxScore, score);
+        }
+
+        for (int d = 0; d < documentCount; d++) {
+            double lexical = maxScore > 0 ?
+                    scores[d] / maxScore :
+                    0;
+            double semantic = 1 - (double) d / documentCount;
+            scores[d] = lexicalWeight * lexical + (1 - lexicalWeight) * semantic;
+        }
+
+        int limit = Math.min(topK, documentCount);
+        List<Document> reranked = new ArrayList<>(limit);
+        boolean[] selected = new boolean[documentCount];
+        for (int i = 0; i < limit; i++) {
+            int best = -1;
+            for (int d = 0; d < documentCount; d++) {
+                if (!selected[d] && (best < 0 || scores[d] > scores[best])) {
+                    best = d;
+                }
+            }
+            selected[best] = true;
+            reranked.add(documents.get(best));
+        }
+        return reranked;
+    }
+
+    private static int countTerms(String text, String[] terms, int[] frequencies, int offset) {
+        if (text == null) {
+            return 0;
+        }
+
+        int length = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                int tokenLength = i - start;
+                for (int t = 0; t < terms.length; t++) {
+                    String term = terms[t];
+                    if (term.length() == tokenLength && text.regionMatches(true, start, term, 0, tokenLength)) {
+                        frequencies[offset + t]++;
+                        break;
+                    }
+                }
+                length++;
+                start = -1;
+            }
+        }
+        return length;
+    }
+
+    private static String[] tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(text.substring(start, i)
+                        .toLowerCase());
+                start = -1;
+            }
+        }
+        return terms.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,164 @@
+package com.francids.escruta.backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class CachingChatMemoryRepository implements ChatMemoryRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CachingChatMemoryRepository.class);
+
+    private final JdbcChatMemoryRepository delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxMessages;
+    private final Cache<String, List<Message>> windows;
+    private final Map<String, List<Message>> pendingWrites = new ConcurrentHashMap<>();
+
+    public CachingChatMemoryRepository(
+            JdbcChatMemoryRepository delegate,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${chat-memory.max-messages}") int maxMessages,
+            @Value("${chat-memory.cache.max-conversations}") long maxConversations,
+            @Value("${chat-memory.cache.ttl}") long ttl
+    ) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxMessages = maxMessages;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        Set<String> conversationIds = new LinkedHashSet<>(delegate.findConversationIds());
+        conversationIds.addAll(pendingWrites.keySet());
+        return List.copyOf(conversationIds);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        return windows.get(conversationId, id -> window(
+                delegate.findByConversationId(id),
+                pendingWrites.getOrDefault(id, List.of())
+        ));
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        List<Message> previous = findByConversationId(conversationId);
+        List<Message> window = List.copyOf(messages);
+        List<Message> appended = window.subList(overlap(previous, window), window.size());
+        pendingWrites.compute(conversationId, (id, pending) -> {
+            windows.put(id, window);
+            if (appended.isEmpty()) {
+                return pending;
+            }
+            return pending != null ?
+                    concat(pending, appended) :
+                    List.copyOf(appended);
+        });
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        pendingWrites.remove(conversationId);
+        windows.invalidate(conversationId);
+        transactionTemplate.executeWithoutResult(status -> {
+            lockConversation(conversationId);
+            delegate.deleteByConversationId(conversationId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${chat-memory.cache.flush-interval}")
+    public void flush() {
+        int flushed = 0;
+        for (String conversationId : List.copyOf(pendingWrites.keySet())) {
+            List<Message> appended = pendingWrites.remove(conversationId);
+            if (appended == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Only the appended messages are written, on top of whatever other instances stored meanwhile.
+                    lockConversation(conversationId);
+                    delegate.saveAll(conversationId, window(delegate.findByConversationId(conversationId), appended));
+                });
+                pendingWrites.compute(conversationId, (id, pending) -> {
+                    if (pending == null) {
+                        windows.invalidate(id);
+                    }
+                    return pending;
+                });
+                flushed++;
+            } catch (Exception e) {
+                pendingWrites.merge(conversationId, appended, (newer, failed) -> concat(failed, newer));
+                logger.warn("Failed to flush chat memory for conversation {}: {}", conversationId, e.getMessage());
+            }
+        }
+        if (flushed > 0) {
+            logger.debug("Flushed {} chat memory windows", flushed);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        if (!pendingWrites.isEmpty()) {
+            logger.error("{} chat memory windows could not be flushed on shutdown", pendingWrites.size());
+        }
+    }
+
+    private void lockConversation(String conversationId) {
+        jdbcTemplate.queryForList(
+                "SELECT pg_advisory_xact_lock(hashtext('chat_memory'), hashtext(?))",
+                conversationId
+        );
+    }
+
+    private List<Message> window(List<Message> stored, List<Message> appended) {
+        List<Message> messages = concat(stored, appended);
+        return messages.subList(Math.max(messages.size() - maxMessages, 0), messages.size());
+    }
+
+    // The chat memory drops the oldest messages and appends new ones, so the new window starts with the longest tail
+    // of the previous window that it repeats; everything after that tail was appended by this call.
+    private static int overlap(List<Message> previous, List<Message> window) {
+        for (int length = Math.min(previous.size(), window.size()); length > 0; length--) {
+            if (previous.subList(previous.size() - length, previous.size())
+                    .equals(window.subList(0, length))) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private static List<Message> concat(List<Message> first, List<Message> second) {
+        List<Message> messages = new ArrayList<>(first.size() + second.size());
+        messages.addAll(first);
+        messages.addAll(second);
+        return List.copyOf(messages);
+    }
+}
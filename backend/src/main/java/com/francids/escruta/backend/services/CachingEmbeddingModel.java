@@ -0,0 +1,153 @@
+package com.francids.escruta.backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+@Primary
+@Service
+public class CachingEmbeddingModel implements EmbeddingModel {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final OpenAiEmbeddingModel delegate;
+    private final EmbeddingCacheService embeddingCacheService;
+    private final boolean enabled;
+    private final String defaultModel;
+    private final int defaultDimensions;
+    private final Cache<String, float[]> queryCache;
+
+    public CachingEmbeddingModel(
+            OpenAiEmbeddingModel delegate,
+            EmbeddingCacheService embeddingCacheService,
+            MeterRegistry meterRegistry,
+            @Value("${embedding-cache.enabled}") boolean enabled,
+            @Value("${embedding-cache.query.enabled}") boolean queryEnabled,
+            @Value("${embedding-cache.query.max-entries}") long queryMaxEntries,
+            @Value("${spring.ai.openai.embedding.options.model}") String defaultModel,
+            @Value("${spring.ai.openai.embedding.options.dimensions}") int defaultDimensions
+    ) {
+        this.delegate = delegate;
+        this.embeddingCacheService = embeddingCacheService;
+        this.enabled = enabled;
+        this.defaultModel = defaultModel;
+        this.defaultDimensions = defaultDimensions;
+        this.queryCache = queryEnabled && queryMaxEntries > 0 ?
+                CaffeineCacheMetrics.monitor(
+                        meterRegistry,
+                        Caffeine.newBuilder()
+                                .maximumSize(queryMaxEntries)
+                                .recordStats()
+                                .build(),
+                        "query-embeddings"
+                ) :
+                null;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        if (!enabled) {
+            return delegate.call(request);
+        }
+
+        String model = defaultModel;
+        int dimensions = defaultDimensions;
+        if (request.getOptions() != null) {
+            if (request.getOptions()
+                    .getModel() != null) {
+                model = request.getOptions()
+                        .getModel();
+            }
+            if (request.getOptions()
+                    .getDimensions() != null) {
+                dimensions = request.getOptions()
+                        .getDimensions();
+            }
+        }
+
+        List<String> texts = request.getInstructions();
+        List<String> hashes = texts.stream()
+                .map(EmbeddingCacheService::hash)
+                .toList();
+        Map<String, float[]> cached = embeddingCacheService.findAll(model, dimensions, hashes);
+
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            if (!cached.containsKey(hashes.get(i))) {
+                missing.putIfAbsent(hashes.get(i), texts.get(i));
+            }
+        }
+
+        EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+        Map<String, float[]> vectors = new HashMap<>(cached);
+        if (!missing.isEmpty()) {
+            List<String> missingHashes = new ArrayList<>(missing.keySet());
+            EmbeddingResponse response = delegate.call(new EmbeddingRequest(
+                    new ArrayList<>(missing.values()),
+                    request.getOptions()
+            ));
+
+            Map<String, float[]> computed = new HashMap<>();
+            List<Embedding> results = response.getResults();
+            for (int i = 0; i < results.size(); i++) {
+                Embedding result = results.get(i);
+                int index = result.getIndex() != null ? result.getIndex() : i;
+                computed.put(missingHashes.get(index), result.getOutput());
+            }
+            embeddingCacheService.putAll(model, dimensions, computed);
+            vectors.putAll(computed);
+            metadata = response.getMetadata();
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(vectors.get(hashes.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings, metadata);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        if (queryCache == null) {
+            return delegate.embed(text);
+        }
+
+        String normalized = normalize(text);
+        String key = defaultModel + ":" + defaultDimensions + ":" + normalized;
+        return queryCache.get(key, ignored -> delegate.embed(normalized));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC))
+                .replaceAll(" ")
+                .trim();
+    }
+}
@@ -0,0 +1,122 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.repositories.EmbeddingCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class EmbeddingCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingCacheService.class);
+
+    private final EmbeddingCacheRepository embeddingCacheRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, float[]> memoryCache;
+
+    public EmbeddingCacheService(
+            EmbeddingCacheRepository embeddingCacheRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${embedding-cache.memory.max-entries}") long memoryMaxEntries
+    ) {
+        this.embeddingCacheRepository = embeddingCacheRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryCache = memoryMaxEntries > 0 ?
+                Caffeine.newBuilder()
+                        .maximumSize(memoryMaxEntries)
+                        .build() :
+                null;
+    }
+
+    public static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of()
+                    .formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, float[]> findAll(String model, int dimensions, Collection<String> contentHashes) {
+        Map<String, float[]> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String contentHash : contentHashes) {
+            float[] embedding = memoryCache != null ?
+                    memoryCache.getIfPresent(memoryKey(model, dimensions, contentHash)) :
+                    null;
+            if (embedding != null) {
+                found.put(contentHash, embedding);
+            } else {
+                missing.add(contentHash);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (var entry : embeddingCacheRepository.findByModelAndDimensionsAndContentHashIn(
+                    model,
+                    dimensions,
+                    missing
+            )) {
+                found.put(entry.getContentHash(), entry.getEmbedding());
+                if (memoryCache != null) {
+                    memoryCache.put(memoryKey(model, dimensions, entry.getContentHash()), entry.getEmbedding());
+                }
+            }
+        }
+        return found;
+    }
+
+    public void putAll(String model, int dimensions, Map<String, float[]> embeddings) {
+        if (memoryCache != null) {
+            embeddings.forEach((contentHash, embedding) -> memoryCache.put(
+                    memoryKey(model, dimensions, contentHash),
+                    embedding
+            ));
+        }
+
+        List<Map.Entry<String, float[]>> entries = List.copyOf(embeddings.entrySet());
+        try {
+            jdbcTemplate.batchUpdate(
+                    """
+                            INSERT INTO embedding_cache (model, dimensions, content_hash, embedding, created_at)
+                            VALUES (?, ?, ?, ?, now())
+                            ON CONFLICT DO NOTHING
+                            """,
+                    entries,
+                    entries.size(),
+                    (ps, entry) -> {
+                        float[] embedding = entry.getValue();
+                        Float[] values = new Float[embedding.length];
+                        for (int i = 0; i < embedding.length; i++) {
+                            values[i] = embedding[i];
+                        }
+                        ps.setString(1, model);
+                        ps.setInt(2, dimensions);
+                        ps.setString(3, entry.getKey());
+                        ps.setArray(4, ps.getConnection()
+                                .createArrayOf("float4", values));
+                    }
+            );
+        } catch (Exception e) {
+            logger.warn("Failed to store {} cached embeddings: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private static String memoryKey(String model, int dimensions, String contentHash) {
+        return model + ":" + dimensions + ":" + contentHash;
+    }
+}
@@ -1,46 +1,266 @@
 package com.francids.escruta.backend.services;
 
-import org.springframework.ai.document.Document;
-import org.springframework.ai.reader.tika.TikaDocumentReader;
-import org.springframework.core.io.ByteArrayResource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.WriteOutContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class FileTextExtractionService {
-    public String extractTextFromFile(MultipartFile file) {
+    private static final Logger logger = LoggerFactory.getLogger(FileTextExtractionService.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor pdfExtractionExecutor;
+    private final AutoDetectParser parser = new AutoDetectParser();
+
+    @Value("${extraction.max-characters}")
+    private int maxCharacters;
+
+    @Value("${extraction.pdf.parallel}")
+    private boolean parallelPdfExtraction;
+
+    @Value("${extraction.pdf.pages-per-range}")
+    private int pagesPerRange;
+
+    public FileTextExtractionService(
+            MeterRegistry meterRegistry,
+            @Qualifier("pdfExtractionExecutor") ThreadPoolTaskExecutor pdfExtractionExecutor
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.pdfExtractionExecutor = pdfExtractionExecutor;
+    }
+
+    public record ExtractedText(
+            int length,
+            int[] pageOffsets
+    ) {
+    }
+
+    public ExtractedText extractTextFromFile(MultipartFile file, Writer writer) {
+        long startedAt = System.nanoTime();
+
+        var text = new TrimmingWriter(writer);
+        ExtractedText extracted;
         try {
-            var documents = getDocuments(file);
+            extracted = parallelPdfExtraction && "application/pdf".equals(file.getContentType()) ?
+                    extractPdf(file, text) :
+                    extractWithTika(file, text);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new RuntimeException("Text extraction was interrupted", e);
+        } catch (Exception e) {
+            if (WriteLimitReachedException.isWriteLimitReached(e)) {
+                throw new RuntimeException("The file contains more than " + maxCharacters + " characters of text");
+            }
+            throw new RuntimeException("Failed to extract text from file: " + e.getMessage(), e);
+        }
+
+        if (extracted.length() == 0) {
+            throw new RuntimeException("No text content could be extracted from the file");
+        }
+
+        long elapsed = System.nanoTime() - startedAt;
+        meterRegistry.summary("source.extraction.characters")
+                .record(extracted.length());
+        meterRegistry.timer("source.extraction.duration")
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        logger.debug(
+                "Extracted {} characters from {} ({} bytes) in {} ms",
+                extracted.length(),
+                file.getOriginalFilename(),
+                file.getSize(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed)
+        );
+        return extracted;
+    }
 
-            var content = new StringBuilder();
-            for (var document : documents) {
-                content.append(document.getFormattedContent()).append("\n\n");
+    private ExtractedText extractWithTika(MultipartFile file, TrimmingWriter text) throws Exception {
+        try (InputStream inputStream = TikaInputStream.get(file.getInputStream())) {
+            var metadata = new Metadata();
+            if (file.getOriginalFilename() != null) {
+                metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, file.getOriginalFilename());
             }
+            var handler = new BodyContentHandler(new WriteOutContentHandler(text, maxCharacters));
+            parser.parse(inputStream, handler, metadata, new ParseContext());
+        }
+        return new ExtractedText(text.length(), null);
+    }
 
-            return content.toString().trim();
+    private ExtractedText extractPdf(MultipartFile file, TrimmingWriter text) throws IOException, InterruptedException {
+        Path pdf = Files.createTempFile("escruta-upload-", ".pdf");
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            file.transferTo(pdf);
+
+            int pageCount;
+            try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+                pageCount = document.getNumberOfPages();
+            }
+
+            List<CompletableFuture<List<String>>> ranges = new ArrayList<>();
+            for (int first = 1; first <= pageCount; first += pagesPerRange) {
+                ranges.add(new CompletableFuture<>());
+            }
+            var nextRange = new AtomicInteger();
+            var characters = new AtomicLong();
+            int workerCount = Math.min(pdfExtractionExecutor.getMaxPoolSize(), ranges.size());
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(pdfExtractionExecutor.submit(() -> extractRanges(
+                        pdf,
+                        pageCount,
+                        ranges,
+                        nextRange,
+                        characters
+                )));
+            }
+
+            int[] pageOffsets = new int[pageCount];
+            int page = 0;
+            for (CompletableFuture<List<String>> range : ranges) {
+                List<String> pages = range.get();
+                for (String pageText : pages) {
+                    pageOffsets[page++] = text.position();
+                    text.write(pageText);
+                }
+                pages.clear();
+            }
+
+            for (int i = 0; i < pageOffsets.length; i++) {
+                pageOffsets[i] = Math.min(pageOffsets[i], text.length());
+            }
+            return new ExtractedText(text.length(), pageOffsets);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause()
+                    .getMessage(), e.getCause());
+        } finally {
+            workers.forEach(worker -> worker.cancel(true));
+            Files.deleteIfExists(pdf);
+        }
+    }
+
+    // Each worker parses the PDF once and keeps claiming the next page range until none are left.
+    private void extractRanges(
+            Path pdf,
+            int pageCount,
+            List<CompletableFuture<List<String>>> ranges,
+            AtomicInteger nextRange,
+            AtomicLong characters
+    ) {
+        try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+            var stripper = new PDFTextStripper();
+            int range;
+            while ((range = nextRange.getAndIncrement()) < ranges.size() && !Thread.currentThread()
+                    .isInterrupted()) {
+                int first = range * pagesPerRange + 1;
+                int last = Math.min(first + pagesPerRange - 1, pageCount);
+                List<String> pages = new ArrayList<>(last - first + 1);
+                for (int page = first; page <= last; page++) {
+                    stripper.setStartPage(page);
+                    stripper.setEndPage(page);
+                    String pageText = stripper.getText(document);
+                    if (characters.addAndGet(pageText.length()) > maxCharacters) {
+                        throw new RuntimeException("The file contains more than " + maxCharacters + " characters of text");
+                    }
+                    pages.add(pageText);
+                }
+                ranges.get(range)
+                        .complete(pages);
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Failed to extract text from file: " + e.getMessage(), e);
+            ranges.forEach(range -> range.completeExceptionally(e));
         }
     }
 
-    private static List<Document> getDocuments(MultipartFile file) throws IOException {
-        var resource = new ByteArrayResource(file.getBytes()) {
-            @Override
-            public String getFilename() {
-                return file.getOriginalFilename();
+    /**
+     * Drops leading and trailing whitespace while the text passes through, holding back a run of whitespace
+     * until a non-whitespace character shows it is not trailing.
+     */
+    private static final class TrimmingWriter extends Writer {
+        private final Writer out;
+        private final StringBuilder whitespace = new StringBuilder();
+        private boolean started;
+        private int written;
+
+        private TrimmingWriter(Writer out) {
+            this.out = out;
+        }
+
+        int length() {
+            return written;
+        }
+
+        int position() {
+            return written + whitespace.length();
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int end = off + len;
+            int run = off;
+            for (int i = off; i < end; i++) {
+                if (Character.isWhitespace(cbuf[i])) {
+                    if (run < i) {
+                        out.write(cbuf, run, i - run);
+                        written += i - run;
+                    }
+                    run = i + 1;
+                    if (started) {
+                        whitespace.append(cbuf[i]);
+                    }
+                } else {
+                    started = true;
+                    if (!whitespace.isEmpty()) {
+                        out.append(whitespace);
+                        written += whitespace.length();
+                        whitespace.setLength(0);
+                    }
+                }
+            }
+            if (run < end) {
+                out.write(cbuf, run, end - run);
+                written += end - run;
             }
-        };
+        }
 
-        TikaDocumentReader reader = new TikaDocumentReader(resource);
-        var documents = reader.get();
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
 
-        if (documents.isEmpty()) {
-            throw new RuntimeException("No text content could be extracted from the file");
+        @Override
+        public void close() throws IOException {
+            out.flush();
         }
-        return documents;
     }
 
     public boolean isSupportedFileType(String contentType) {
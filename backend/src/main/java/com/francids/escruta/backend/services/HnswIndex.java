@@ -0,0 +1,240 @@
+package com.francids.escruta.backend.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class HnswIndex {
+    public record Match(
+            int node,
+            double similarity
+    ) {
+    }
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::similarity)
+            .reversed();
+    private static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble(Match::similarity);
+
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    private float[] vectors;
+    private int[][][] neighbors;
+    private int[][] neighborCounts;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction, int capacity) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.vectors = new float[Math.max(1, capacity) * dimensions];
+        this.neighbors = new int[Math.max(1, capacity)][][];
+        this.neighborCounts = new int[Math.max(1, capacity)][];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+
+        int node = size;
+        ensureCapacity(node + 1);
+        normalizeInto(vector, vectors, node * dimensions);
+
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        neighbors[node] = new int[level + 1][];
+        neighborCounts[node] = new int[level + 1];
+        for (int l = 0; l <= level; l++) {
+            neighbors[node][l] = new int[maxNeighbors(l)];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int offset = node * dimensions;
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = searchGreedy(vectors, offset, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Match> candidates = searchLayer(vectors, offset, current, efConstruction, l);
+            int count = Math.min(m, candidates.size());
+            for (int i = 0; i < count; i++) {
+                int neighbor = candidates.get(i)
+                        .node();
+                connect(node, neighbor, l);
+                connect(neighbor, node, l);
+            }
+            current = candidates.getFirst()
+                    .node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    public List<Match> search(float[] query, int k, int ef) {
+        if (size == 0 || query.length != dimensions) {
+            return List.of();
+        }
+
+        float[] normalized = new float[dimensions];
+        normalizeInto(query, normalized, 0);
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = searchGreedy(normalized, 0, current, l);
+        }
+        List<Match> matches = searchLayer(normalized, 0, current, Math.max(ef, k), 0);
+        return matches.size() > k ?
+                matches.subList(0, k) :
+                matches;
+    }
+
+    private int searchGreedy(float[] query, int queryOffset, int entry, int level) {
+        int current = entry;
+        double currentSimilarity = similarity(query, queryOffset, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] candidates = neighbors[current][level];
+            int count = neighborCounts[current][level];
+            for (int i = 0; i < count; i++) {
+                double candidateSimilarity = similarity(query, queryOffset, candidates[i]);
+                if (candidateSimilarity > currentSimilarity) {
+                    current = candidates[i];
+                    currentSimilarity = candidateSimilarity;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<Match> searchLayer(float[] query, int queryOffset, int entry, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Match> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Match> results = new PriorityQueue<>(WORST_FIRST);
+
+        Match start = new Match(entry, similarity(query, queryOffset, entry));
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Match current = candidates.poll();
+            if (results.size() >= ef && current.similarity() < results.peek()
+                    .similarity()) {
+                break;
+            }
+
+            int[] adjacent = neighbors[current.node()][level];
+            int count = neighborCounts[current.node()][level];
+            for (int i = 0; i < count; i++) {
+                int neighbor = adjacent[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                double neighborSimilarity = similarity(query, queryOffset, neighbor);
+                if (results.size() < ef || neighborSimilarity > results.peek()
+                        .similarity()) {
+                    Match match = new Match(neighbor, neighborSimilarity);
+                    candidates.add(match);
+                    results.add(match);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Match> sorted = new ArrayList<>(results);
+        sorted.sort(BEST_FIRST);
+        return sorted;
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] adjacent = neighbors[from][level];
+        int count = neighborCounts[from][level];
+        if (count < adjacent.length) {
+            adjacent[count] = to;
+            neighborCounts[from][level] = count + 1;
+            return;
+        }
+
+        int fromOffset = from * dimensions;
+        int worst = -1;
+        double worstSimilarity = similarity(vectors, fromOffset, to);
+        for (int i = 0; i < count; i++) {
+            double candidateSimilarity = similarity(vectors, fromOffset, adjacent[i]);
+            if (candidateSimilarity < worstSimilarity) {
+                worst = i;
+                worstSimilarity = candidateSimilarity;
+            }
+        }
+        if (worst >= 0) {
+            adjacent[worst] = to;
+        }
+    }
+
+    private double similarity(float[] query, int queryOffset, int node) {
+        int nodeOffset = node * dimensions;
+        double dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[queryOffset + i] * vectors[nodeOffset + i];
+        }
+        return dot;
+    }
+
+    private int maxNeighbors(int level) {
+        return level == 0 ?
+                m * 2 :
+                m;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= neighbors.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, neighbors.length * 2);
+        vectors = Arrays.copyOf(vectors, newCapacity * dimensions);
+        neighbors = Arrays.copyOf(neighbors, newCapacity);
+        neighborCounts = Arrays.copyOf(neighborCounts, newCapacity);
+    }
+
+    private void normalizeInto(float[] vector, float[] target, int offset) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        double scale = norm > 0 ?
+                1 / Math.sqrt(norm) :
+                0;
+        for (int i = 0; i < dimensions; i++) {
+            target[offset + i] = (float) (vector[i] * scale);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+@Primary
+@Service
+public class HotTierVectorStore implements VectorStore {
+    private static final Logger logger = LoggerFactory.getLogger(HotTierVectorStore.class);
+
+    private record NotebookIndex(
+            HnswIndex index,
+            List<String> ids,
+            List<String> texts,
+            List<Map<String, Object>> metadata,
+            Set<String> sourceIds
+    ) {
+    }
+
+    private final PgVectorStore delegate;
+    private final EmbeddingModel embeddingModel;
+    private final VectorChunkRepository vectorChunkRepository;
+    private final ThreadPoolTaskExecutor vectorIndexExecutor;
+    private final boolean enabled;
+    private final int maxVectorsPerNotebook;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Cache<UUID, NotebookIndex> indexes;
+    private final Map<UUID, Object> warmTokens = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public HotTierVectorStore(
+            PgVectorStore delegate,
+            EmbeddingModel embeddingModel,
+            VectorChunkRepository vectorChunkRepository,
+            MeterRegistry meterRegistry,
+            @Qualifier("vectorIndexExecutor") ThreadPoolTaskExecutor vectorIndexExecutor,
+            @Value("${vector-store.hot-tier.enabled}") boolean enabled,
+            @Value("${vector-store.hot-tier.max-vectors}") long maxVectors,
+            @Value("${vector-store.hot-tier.max-vectors-per-notebook}") int maxVectorsPerNotebook,
+            @Value("${vector-store.hot-tier.m}") int m,
+            @Value("${vector-store.hot-tier.ef-construction}") int efConstruction,
+            @Value("${vector-store.hot-tier.ef-search}") int efSearch
+    ) {
+        this.delegate = delegate;
+        this.embeddingModel = embeddingModel;
+        this.vectorChunkRepository = vectorChunkRepository;
+        this.vectorIndexExecutor = vectorIndexExecutor;
+        this.enabled = enabled;
+        this.maxVectorsPerNotebook = maxVectorsPerNotebook;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxVectors)
+                .weigher((UUID notebookId, NotebookIndex index) -> index.ids()
+                        .size())
+                .build();
+        this.hits = meterRegistry.counter("vector.hot-tier.requests", "result", "hit");
+        this.misses = meterRegistry.counter("vector.hot-tier.requests", "result", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        delegate.add(documents);
+        documents.stream()
+                .map(document -> document.getMetadata()
+                        .get("notebookId"))
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .distinct()
+                .forEach(notebookId -> invalidate(UUID.fromString(notebookId)));
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        delegate.delete(idList);
+        Set<String> ids = new HashSet<>(idList);
+        invalidateWhere(index -> index.ids()
+                .stream()
+                .anyMatch(ids::contains));
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        UUID notebookId = getUuid(filterExpression, "notebookId");
+        UUID sourceId = getUuid(filterExpression, "sourceId");
+        if (notebookId != null) {
+            vectorChunkRepository.deleteByNotebookId(notebookId);
+            invalidate(notebookId);
+        } else if (sourceId != null) {
+            vectorChunkRepository.deleteBySourceId(sourceId);
+            invalidateWhere(index -> index.sourceIds()
+                    .contains(sourceId.toString()));
+        } else {
+            delegate.delete(filterExpression);
+            invalidateWhere(index -> true);
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        UUID notebookId = getUuid(request.getFilterExpression(), "notebookId");
+        if (notebookId == null) {
+            return delegate.similaritySearch(request);
+        }
+
+        float[] query = embeddingModel.embed(request.getQuery());
+        NotebookIndex notebookIndex = enabled ?
+                indexes.getIfPresent(notebookId) :
+                null;
+        if (notebookIndex == null) {
+            if (enabled) {
+                misses.increment();
+                warm(notebookId);
+            }
+            return vectorChunkRepository.searchByNotebookId(
+                    notebookId,
+                    query,
+                    request.getTopK(),
+                    request.getSimilarityThreshold()
+            );
+        }
+
+        hits.increment();
+        List<Document> documents = new ArrayList<>(request.getTopK());
+        for (HnswIndex.Match match : notebookIndex.index()
+                .search(query, request.getTopK(), efSearch)) {
+            if (match.similarity() < request.getSimilarityThreshold()) {
+                continue;
+            }
+            Map<String, Object> metadata = new HashMap<>(notebookIndex.metadata()
+                    .get(match.node()));
+            metadata.put("distance", (float) (1 - match.similarity()));
+            documents.add(Document.builder()
+                    .id(notebookIndex.ids()
+                            .get(match.node()))
+                    .text(notebookIndex.texts()
+                            .get(match.node()))
+                    .metadata(metadata)
+                    .score(match.similarity())
+                    .build());
+        }
+        return documents;
+    }
+
+    private void warm(UUID notebookId) {
+        Object token = new Object();
+        if (warmTokens.putIfAbsent(notebookId, token) != null) {
+            return;
+        }
+        try {
+            vectorIndexExecutor.execute(() -> build(notebookId, token));
+        } catch (TaskRejectedException e) {
+            warmTokens.remove(notebookId, token);
+        }
+    }
+
+    private void build(UUID notebookId, Object token) {
+        try {
+            int count = vectorChunkRepository.countByNotebookId(notebookId);
+            if (count == 0 || count > maxVectorsPerNotebook) {
+                return;
+            }
+
+            HnswIndex index = new HnswIndex(embeddingModel.dimensions(), m, efConstruction, count);
+            List<String> ids = new ArrayList<>(count);
+            List<String> texts = new ArrayList<>(count);
+            List<Map<String, Object>> metadata = new ArrayList<>(count);
+            Set<String> sourceIds = new HashSet<>();
+            vectorChunkRepository.forEachByNotebookId(
+                    notebookId,
+                    rs -> {
+                        Map<String, Object> documentMetadata = vectorChunkRepository.parseMetadata(
+                                rs.getString("metadata"));
+                        index.add(toFloatArray(rs.getArray("embedding")));
+                        ids.add(rs.getString("id"));
+                        texts.add(rs.getString("content"));
+                        metadata.add(documentMetadata);
+                        Object sourceId = documentMetadata.get("sourceId");
+                        if (sourceId != null) {
+                            sourceIds.add(sourceId.toString());
+                        }
+                    }
+            );
+
+            if (warmTokens.remove(notebookId, token)) {
+                indexes.put(notebookId, new NotebookIndex(index, ids, texts, metadata, sourceIds));
+                logger.debug("Loaded {} vectors of notebook {} into the hot tier", ids.size(), notebookId);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load notebook {} into the hot tier: {}", notebookId, e.getMessage());
+        } finally {
+            warmTokens.remove(notebookId, token);
+        }
+    }
+
+    private void invalidate(UUID notebookId) {
+        warmTokens.remove(notebookId);
+        indexes.invalidate(notebookId);
+    }
+
+    private void invalidateWhere(Predicate<NotebookIndex> predicate) {
+        warmTokens.clear();
+        Collection<UUID> stale = indexes.asMap()
+                .entrySet()
+                .stream()
+                .filter(entry -> predicate.test(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        indexes.invalidateAll(stale);
+    }
+
+    private static float[] toFloatArray(Array array) throws java.sql.SQLException {
+        Object[] values = (Object[]) array.getArray();
+        float[] vector = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            vector[i] = ((Number) values[i]).floatValue();
+        }
+        return vector;
+    }
+
+    private static UUID getUuid(Filter.Expression expression, String key) {
+        String value = getEqualityValue(expression, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String getEqualityValue(Filter.Expression expression, String key) {
+        if (expression != null && expression.type() == Filter.ExpressionType.EQ &&
+                expression.left() instanceof Filter.Key(String expressionKey) && key.equals(expressionKey) &&
+                expression.right() instanceof Filter.Value(Object value) && value != null) {
+            return value.toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class HybridDocumentRetriever implements DocumentRetriever {
+    public static final String NOTEBOOK_ID = "hybrid_notebook_id";
+
+    private static final Pattern TERM_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final VectorChunkRepository vectorChunkRepository;
+    private final ThreadPoolTaskExecutor retrievalExecutor;
+    private final VectorStoreDocumentRetriever vectorRetriever;
+    private final int candidates;
+    private final int rrfK;
+    private final int topK;
+
+    public HybridDocumentRetriever(
+            VectorStore vectorStore,
+            VectorChunkRepository vectorChunkRepository,
+            ThreadPoolTaskExecutor retrievalExecutor,
+            int candidates,
+            int rrfK,
+            int topK
+    ) {
+        this.vectorChunkRepository = vectorChunkRepository;
+        this.retrievalExecutor = retrievalExecutor;
+        this.vectorRetriever = VectorStoreDocumentRetriever.builder()
+                .vectorStore(vectorStore)
+                .topK(candidates)
+                .build();
+        this.candidates = candidates;
+        this.rrfK = rrfK;
+        this.topK = topK;
+    }
+
+    @Override
+    public List<Document> retrieve(Query query) {
+        Object notebookId = query.context()
+                .get(NOTEBOOK_ID);
+        if (notebookId == null) {
+            throw new IllegalArgumentException("Hybrid retrieval requires the " + NOTEBOOK_ID + " parameter");
+        }
+
+        CompletableFuture<List<Document>> lexical = CompletableFuture.supplyAsync(
+                () -> searchLexical(UUID.fromString(notebookId.toString()), query.text()),
+                retrievalExecutor
+        );
+        List<Document> semantic = vectorRetriever.retrieve(query);
+        return fuse(List.of(semantic, lexical.join()));
+    }
+
+    private List<Document> searchLexical(UUID notebookId, String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        Matcher matcher = TERM_PATTERN.matcher(text.toLowerCase());
+        while (matcher.find()) {
+            terms.add(matcher.group());
+        }
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        return vectorChunkRepository.searchTextByNotebookId(notebookId, String.join(" | ", terms), candidates);
+    }
+
+    private List<Document> fuse(List<List<Document>> rankings) {
+        Map<String, Document> documents = new HashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document document = ranking.get(rank);
+                documents.putIfAbsent(document.getId(), document);
+                scores.merge(document.getId(), 1.0 / (rrfK + rank + 1), Double::sum);
+            }
+        }
+
+        List<Document> fused = new ArrayList<>(documents.size());
+        scores.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(topK)
+                .forEach(entry -> {
+                    Document document = documents.get(entry.getKey());
+                    fused.add(Document.builder()
+                            .id(document.getId())
+                            .text(document.getText())
+                            .metadata(document.getMetadata())
+                            .score(entry.getValue())
+                            .build());
+                });
+        return fused;
+    }
+}
@@ -1,5 +1,7 @@
 package com.francids.escruta.backend.services;
 
+import com.francids.escruta.backend.dtos.CursorPage;
+import com.francids.escruta.backend.dtos.PageCursor;
 import com.francids.escruta.backend.dtos.note.NoteCreationDTO;
 import com.francids.escruta.backend.dtos.note.NoteResponseDTO;
 import com.francids.escruta.backend.dtos.note.NoteUpdateDTO;
@@ -10,9 +12,12 @@ import com.francids.escruta.backend.mappers.NoteMapper;
 import com.francids.escruta.backend.repositories.NoteRepository;
 import com.francids.escruta.backend.repositories.NotebookRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,11 +29,35 @@ public class NoteService {
     private final UserService userService;
     private final NoteMapper noteMapper;
 
+    @Value("${pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size}")
+    private int maxPageSize;
+
     public List<NoteResponseDTO> getNotes(UUID notebookId) {
-        return noteRepository.findByNotebookId(notebookId)
-                .stream()
-                .map(NoteResponseDTO::new)
-                .toList();
+        return noteRepository.findResponsesByNotebookId(notebookId);
+    }
+
+    public CursorPage<NoteResponseDTO> getNotes(UUID notebookId, String cursor, Integer limit) {
+        if (cursor == null && limit == null) {
+            return new CursorPage<>(noteRepository.findResponsesByNotebookId(notebookId), null);
+        }
+
+        int pageSize = Math.clamp(Objects.requireNonNullElse(limit, defaultPageSize), 1, maxPageSize);
+        List<NoteResponseDTO> notes;
+        if (cursor == null) {
+            notes = noteRepository.findResponsePageByNotebookId(notebookId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            notes = noteRepository.findResponsePageByNotebookIdAfter(
+                    notebookId,
+                    pageCursor.updatedAt(),
+                    pageCursor.id(),
+                    Limit.of(pageSize + 1)
+            );
+        }
+        return CursorPage.of(notes, pageSize, note -> new PageCursor(note.updatedAt(), note.id()));
     }
 
     public NoteWithContentDTO getNote(UUID notebookId, UUID noteId) {
@@ -0,0 +1,67 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.dtos.source.SourceVersionDTO;
+import com.francids.escruta.backend.entities.Notebook;
+import com.francids.escruta.backend.repositories.NotebookRepository;
+import com.francids.escruta.backend.repositories.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class NotebookInsightService {
+    private final NotebookRepository notebookRepository;
+    private final SourceRepository sourceRepository;
+
+    public String getSummary(UUID notebookId, Supplier<String> generator) {
+        String fingerprint = fingerprint(notebookId);
+        Notebook notebook = notebookRepository.findById(notebookId)
+                .orElseThrow();
+        if (notebook.getSummary() != null && fingerprint.equals(notebook.getSummaryFingerprint())) {
+            return notebook.getSummary();
+        }
+
+        String summary = generator.get();
+        notebookRepository.updateSummary(notebookId, summary, fingerprint);
+        return summary;
+    }
+
+    public List<String> getExampleQuestions(UUID notebookId, Supplier<List<String>> generator) {
+        String fingerprint = fingerprint(notebookId);
+        Notebook notebook = notebookRepository.findById(notebookId)
+                .orElseThrow();
+        if (notebook.getExampleQuestions() != null &&
+                fingerprint.equals(notebook.getExampleQuestionsFingerprint())) {
+            return Arrays.asList(notebook.getExampleQuestions());
+        }
+
+        List<String> questions = generator.get();
+        notebookRepository.updateExampleQuestions(notebookId, questions.toArray(String[]::new), fingerprint);
+        return questions;
+    }
+
+    public String fingerprint(UUID notebookId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (SourceVersionDTO version : sourceRepository.findVersionsByNotebookId(notebookId)) {
+                String entry = version.id() + ":" + Objects.toString(version.updatedAt()) + ":" +
+                        version.indexingStatus() + ";";
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of()
+                    .formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.francids.escruta.backend.services;
 
+import com.francids.escruta.backend.dtos.CursorPage;
+import com.francids.escruta.backend.dtos.PageCursor;
 import com.francids.escruta.backend.dtos.notebook.NotebookCreationDTO;
 import com.francids.escruta.backend.dtos.notebook.NotebookResponseDTO;
 import com.francids.escruta.backend.dtos.notebook.NotebookUpdateDTO;
 import com.francids.escruta.backend.dtos.notebook.NotebookWithDetailsDTO;
+import com.francids.escruta.backend.dtos.source.SourceResponseDTO;
 import com.francids.escruta.backend.entities.Notebook;
-import com.francids.escruta.backend.entities.Source;
 import com.francids.escruta.backend.mappers.NotebookMapper;
 import com.francids.escruta.backend.repositories.NotebookRepository;
 import com.francids.escruta.backend.repositories.SourceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,20 +30,54 @@ public class NotebookService {
     private final SourceRepository sourceRepository;
     private final NotebookMapper notebookMapper;
     private final NoteService noteService;
+    private final BackgroundJobService backgroundJobService;
 
-    public List<NotebookResponseDTO> getAllUserNotebooks() {
-        return notebookRepository.findByUserId(userService.getUserId())
-                .stream()
-                .map(NotebookResponseDTO::new)
-                .toList();
+    @Value("${pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size}")
+    private int maxPageSize;
+
+    public CursorPage<NotebookResponseDTO> getUserNotebooks(String cursor, Integer limit) {
+        UUID userId = userService.getUserId();
+        if (cursor == null && limit == null) {
+            return new CursorPage<>(
+                    notebookRepository.findByUserId(userId)
+                            .stream()
+                            .map(NotebookResponseDTO::new)
+                            .toList(),
+                    null
+            );
+        }
+
+        int pageSize = Math.clamp(Objects.requireNonNullElse(limit, defaultPageSize), 1, maxPageSize);
+        List<Notebook> notebooks;
+        if (cursor == null) {
+            notebooks = notebookRepository.findPageByUserId(userId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            notebooks = notebookRepository.findPageByUserIdAfter(
+                    userId,
+                    pageCursor.updatedAt(),
+                    pageCursor.id(),
+                    Limit.of(pageSize + 1)
+            );
+        }
+        return CursorPage.of(
+                notebooks.stream()
+                        .map(NotebookResponseDTO::new)
+                        .toList(),
+                pageSize,
+                notebook -> new PageCursor(notebook.updatedAt(), notebook.id())
+        );
     }
 
     public Optional<NotebookWithDetailsDTO> getUserNotebookWithDetails(UUID id) {
-        Optional<Notebook> notebookOptional = notebookRepository.findById(id);
+        Optional<Notebook> notebookOptional = notebookRepository.findWithUserById(id);
         if (notebookOptional.isPresent()) {
             Notebook notebook = notebookOptional.get();
             var notes = noteService.getNotes(id);
-            List<Source> sources = sourceRepository.findByNotebookId(id);
+            List<SourceResponseDTO> sources = sourceRepository.findResponsesByNotebookId(id);
             return Optional.of(new NotebookWithDetailsDTO(notebook, notes, sources));
         }
 
@@ -57,7 +97,7 @@ public class NotebookService {
     public NotebookResponseDTO updateNotebook(NotebookUpdateDTO newNotebookDto) {
         try {
             UUID notebookId = UUID.fromString(newNotebookDto.id());
-            Optional<Notebook> notebookOptional = notebookRepository.findById(notebookId);
+            Optional<Notebook> notebookOptional = notebookRepository.findWithUserById(notebookId);
             if (notebookOptional.isPresent()) {
                 Notebook notebook = notebookOptional.get();
                 notebookMapper.updateNotebookFromDto(newNotebookDto, notebook);
@@ -70,13 +110,19 @@ public class NotebookService {
         }
     }
 
+    @Transactional
     public NotebookResponseDTO deleteNotebook(NotebookUpdateDTO notebookDto) {
         try {
             UUID notebookId = UUID.fromString(notebookDto.id());
-            Optional<Notebook> notebookOptional = notebookRepository.findById(notebookId);
+            Optional<Notebook> notebookOptional = notebookRepository.findWithUserById(notebookId);
             if (notebookOptional.isPresent()) {
                 Notebook notebook = notebookOptional.get();
                 notebookRepository.deleteById(notebook.getId());
+                backgroundJobService.enqueueNotebookPurge(
+                        notebook.getUser()
+                                .getId(),
+                        notebook.getId()
+                );
                 return new NotebookResponseDTO(notebook);
             }
             return null;
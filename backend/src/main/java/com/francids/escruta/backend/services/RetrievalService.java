@@ -4,11 +4,14 @@ import com.francids.escruta.backend.entities.Source;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,17 +21,29 @@ import java.util.UUID;
 public class RetrievalService {
     private final VectorStore vectorStore;
 
-    public QuestionAnswerAdvisor getQuestionAnswerAdvisor(UUID notebookId) {
-        return QuestionAnswerAdvisor.builder(vectorStore)
-                .searchRequest(SearchRequest.builder()
-                        .topK(3)
-                        .filterExpression(new Filter.Expression(
-                                Filter.ExpressionType.EQ,
-                                new Filter.Key("notebookId"),
-                                new Filter.Value(notebookId.toString())
-                        ))
-                        .build())
-                .build();
+    public Map<String, Object> getNotebookAdvisorParams(UUID notebookId) {
+        String filterExpression = "notebookId == '" + notebookId + "'";
+        return Map.of(
+                QuestionAnswerAdvisor.FILTER_EXPRESSION,
+                filterExpression,
+                VectorStoreDocumentRetriever.FILTER_EXPRESSION,
+                filterExpression,
+                HybridDocumentRetriever.NOTEBOOK_ID,
+                notebookId.toString()
+        );
+    }
+
+    public void deleteIndexedNotebook(UUID notebookId) {
+        try {
+            Filter.Expression filterExpression = new Filter.Expression(
+                    Filter.ExpressionType.EQ,
+                    new Filter.Key("notebookId"),
+                    new Filter.Value(notebookId.toString())
+            );
+            vectorStore.delete(filterExpression);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete indexed notebook: " + e.getMessage(), e);
+        }
     }
 
     public void deleteIndexedSource(UUID sourceId) {
@@ -44,27 +59,39 @@ public class RetrievalService {
         }
     }
 
-    public void indexSourceChunk(UUID notebookId, Source source, Document chunk, int chunkIndex) {
+    public void indexSourceChunks(
+            UUID notebookId,
+            Source source,
+            List<Document> chunks,
+            List<Integer> pages,
+            int firstChunkIndex
+    ) {
         try {
-            Document document = new Document(
-                    UUID.randomUUID()
-                            .toString(), chunk.getFormattedContent(), Map.of(
-                    "sourceId",
-                    source.getId()
-                            .toString(),
-                    "notebookId",
-                    notebookId.toString(),
-                    "title",
-                    source.getTitle() != null ? source.getTitle() : "Untitled",
-                    "link",
-                    source.getLink() != null ? source.getLink() : "",
-                    "chunkIndex",
-                    String.valueOf(chunkIndex)
-            )
-            );
-            vectorStore.add(List.of(document));
+            List<Document> documents = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("sourceId", source.getId()
+                        .toString());
+                metadata.put("notebookId", notebookId.toString());
+                metadata.put("title", source.getTitle() != null ? source.getTitle() : "Untitled");
+                metadata.put("link", source.getLink() != null ? source.getLink() : "");
+                metadata.put("chunkIndex", String.valueOf(firstChunkIndex + i));
+                if (pages != null && pages.get(i) != null) {
+                    metadata.put("page", String.valueOf(pages.get(i)));
+                }
+                documents.add(new Document(
+                        chunkDocumentId(source.getId(), firstChunkIndex + i), chunks.get(i)
+                        .getFormattedContent(), metadata
+                ));
+            }
+            vectorStore.add(documents);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to index source chunk: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to index source chunks: " + e.getMessage(), e);
         }
     }
+
+    private static String chunkDocumentId(UUID sourceId, int chunkIndex) {
+        return UUID.nameUUIDFromBytes((sourceId + ":" + chunkIndex).getBytes(StandardCharsets.UTF_8))
+                .toString();
+    }
 }
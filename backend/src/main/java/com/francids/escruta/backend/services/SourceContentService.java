@@ -0,0 +1,303 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.entities.SourceContentChunk;
+import com.francids.escruta.backend.exceptions.SourceContentChangedException;
+import com.francids.escruta.backend.repositories.SourceContentChunkRepository;
+import com.francids.escruta.backend.repositories.SourceRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.PreparedStatement;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SourceContentService {
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance()
+            .fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance()
+            .fastDecompressor();
+
+    private final SourceContentChunkRepository sourceContentChunkRepository;
+    private final SourceRepository sourceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${source-content.chunk-characters}")
+    private int chunkCharacters;
+
+    private volatile Boolean inlineContent;
+    private volatile boolean inlineContentMigrated;
+
+    public boolean hasInlineContent() {
+        Boolean present = inlineContent;
+        if (present == null) {
+            present = jdbcTemplate.queryForObject(
+                    """
+                            SELECT EXISTS (
+                                SELECT 1 FROM information_schema.columns
+                                WHERE table_name = 'sources' AND column_name = 'content'
+                            )
+                            """,
+                    Boolean.class
+            );
+            inlineContent = present;
+        }
+        return Boolean.TRUE.equals(present);
+    }
+
+    public void markInlineContentDropped() {
+        inlineContent = false;
+    }
+
+    public void markInlineContentMigrated() {
+        inlineContentMigrated = true;
+    }
+
+    public void migrateInline(UUID sourceId) {
+        if (!hasInlineContent()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> content = jdbcTemplate.queryForList(
+                    """
+                            SELECT content FROM sources
+                            WHERE id = ? AND content_hash IS NULL
+                            FOR UPDATE
+                            """,
+                    String.class,
+                    sourceId
+            );
+            // Empty content still gets a hash, which records the source as migrated.
+            if (!content.isEmpty()) {
+                save(sourceId, Objects.requireNonNullElse(content.getFirst(), ""));
+            }
+        });
+    }
+
+    @Transactional
+    public void save(UUID sourceId, String content) {
+        try (ContentWriter writer = openWriter(sourceId)) {
+            writer.write(content, 0, content.length());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ContentWriter openWriter(UUID sourceId) {
+        // Chunks are inserted over JDBC, so a source persisted in this transaction has to reach the database first.
+        entityManager.flush();
+        sourceContentChunkRepository.deleteBySourceId(sourceId);
+        return new ContentWriter(sourceId);
+    }
+
+    public String load(UUID sourceId) {
+        List<SourceContentChunk> chunks = sourceContentChunkRepository.findBySourceIdOrderByChunkIndex(sourceId);
+        // Sources whose content is empty have no chunks, but their hash shows that they were already migrated.
+        if (chunks.isEmpty() && !inlineContentMigrated && hasInlineContent() &&
+                sourceRepository.findContentHash(sourceId)
+                        .isEmpty()) {
+            migrateInline(sourceId);
+            chunks = sourceContentChunkRepository.findBySourceIdOrderByChunkIndex(sourceId);
+        }
+        StringBuilder content = new StringBuilder(chunks.stream()
+                .mapToInt(SourceContentChunk::getCharLength)
+                .sum());
+        for (SourceContentChunk chunk : chunks) {
+            content.append(decompress(chunk));
+        }
+        return content.toString();
+    }
+
+    // Moves an offset that falls between the two halves of a surrogate pair past the pair. Chunks never split a pair,
+    // so only offsets strictly inside a chunk need to be checked.
+    public int alignToCodePoint(UUID sourceId, int offset) {
+        List<Integer> aligned = jdbcTemplate.query(
+                """
+                        SELECT char_offset, raw_length, data FROM source_content_chunks
+                        WHERE source_id = ? AND char_offset < ? AND char_offset + char_length > ?
+                        """,
+                (rs, rowNum) -> {
+                    String text = decompress(rs.getBytes("data"), rs.getInt("raw_length"));
+                    int index = offset - rs.getInt("char_offset");
+                    boolean splitsPair = Character.isHighSurrogate(text.charAt(index - 1)) &&
+                            Character.isLowSurrogate(text.charAt(index));
+                    return splitsPair ?
+                            offset + 1 :
+                            offset;
+                },
+                sourceId,
+                offset,
+                offset
+        );
+        return aligned.isEmpty() ?
+                offset :
+                aligned.getFirst();
+    }
+
+    public void write(UUID sourceId, String contentHash, int start, int end, Writer writer) throws IOException {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        try {
+            snapshot.executeWithoutResult(status -> {
+                // Checked before anything is written, while the response status can still be changed.
+                String currentHash = sourceRepository.findContentHash(sourceId)
+                        .orElse(null);
+                if (!Objects.equals(currentHash, contentHash)) {
+                    throw new SourceContentChangedException(sourceId);
+                }
+
+                jdbcTemplate.query(
+                        connection -> {
+                            PreparedStatement statement = connection.prepareStatement("""
+                                    SELECT char_offset, char_length, raw_length, data FROM source_content_chunks
+                                    WHERE source_id = ? AND char_offset < ? AND char_offset + char_length > ?
+                                    ORDER BY chunk_index
+                                    """);
+                            statement.setFetchSize(1);
+                            statement.setObject(1, sourceId);
+                            statement.setInt(2, end);
+                            statement.setInt(3, start);
+                            return statement;
+                        },
+                        (RowCallbackHandler) rs -> {
+                            int charOffset = rs.getInt("char_offset");
+                            int from = Math.max(start - charOffset, 0);
+                            int to = Math.min(end - charOffset, rs.getInt("char_length"));
+                            try {
+                                writer.write(decompress(rs.getBytes("data"), rs.getInt("raw_length")), from, to - from);
+                                writer.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                );
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public final class ContentWriter extends Writer {
+        private final UUID sourceId;
+        private final char[] buffer = new char[chunkCharacters];
+        private final MessageDigest digest;
+        private int buffered;
+        private int length;
+        private int chunkIndex;
+        private boolean closed;
+
+        private ContentWriter(UUID sourceId) {
+            this.sourceId = sourceId;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public int length() {
+            return length + buffered;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            while (len > 0) {
+                int count = Math.min(len, buffer.length - buffered);
+                System.arraycopy(cbuf, off, buffer, buffered, count);
+                buffered += count;
+                off += count;
+                len -= count;
+                if (buffered == buffer.length) {
+                    writeChunk(false);
+                }
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            while (len > 0) {
+                int count = Math.min(len, buffer.length - buffered);
+                str.getChars(off, off + count, buffer, buffered);
+                buffered += count;
+                off += count;
+                len -= count;
+                if (buffered == buffer.length) {
+                    writeChunk(false);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (buffered > 0) {
+                writeChunk(true);
+            }
+            sourceRepository.updateContentInfo(sourceId, length, HexFormat.of()
+                    .formatHex(digest.digest()));
+        }
+
+        private void writeChunk(boolean last) {
+            int end = buffered;
+            if (!last && end > 1 && Character.isHighSurrogate(buffer[end - 1])) {
+                end--;
+            }
+            byte[] raw = new String(buffer, 0, end).getBytes(StandardCharsets.UTF_8);
+            digest.update(raw);
+            jdbcTemplate.update(
+                    """
+                            INSERT INTO source_content_chunks
+                                (source_id, chunk_index, char_offset, char_length, raw_length, data)
+                            VALUES (?, ?, ?, ?, ?, ?)
+                            """,
+                    sourceId,
+                    chunkIndex++,
+                    length,
+                    end,
+                    raw.length,
+                    COMPRESSOR.compress(raw)
+            );
+            length += end;
+            System.arraycopy(buffer, end, buffer, 0, buffered - end);
+            buffered -= end;
+        }
+    }
+
+    private static String decompress(SourceContentChunk chunk) {
+        return decompress(chunk.getData(), chunk.getRawLength());
+    }
+
+    private static String decompress(byte[] data, int rawLength) {
+        return new String(DECOMPRESSOR.decompress(data, rawLength), StandardCharsets.UTF_8);
+    }
+}
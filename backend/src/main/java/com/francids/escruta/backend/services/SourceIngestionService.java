@@ -0,0 +1,153 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.entities.BackgroundJob;
+import com.francids.escruta.backend.entities.Source;
+import com.francids.escruta.backend.repositories.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+@Service
+@RequiredArgsConstructor
+public class SourceIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(SourceIngestionService.class);
+
+    private static final List<BackgroundJob.Type> CONVERSION_STAGES = List.of(BackgroundJob.Type.CONVERT_SOURCE);
+    private static final List<BackgroundJob.Type> CONTENT_STAGES = List.of(
+            BackgroundJob.Type.SUMMARIZE_SOURCE,
+            BackgroundJob.Type.INDEX_SOURCE
+    );
+
+    private final SourceRepository sourceRepository;
+    private final SourceContentService sourceContentService;
+    private final BackgroundJobService backgroundJobService;
+    private final ChatModel chatModel;
+    private final SourceSummarizationService sourceSummarizationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public Source register(Source source, String content, UUID userId, boolean aiConverter) {
+        return register(source, userId, aiConverter, (saved, writer) -> writer.write(content, 0, content.length()));
+    }
+
+    @Transactional
+    public Source register(
+            Source source,
+            UUID userId,
+            boolean aiConverter,
+            BiConsumer<Source, SourceContentService.ContentWriter> content
+    ) {
+        source.setConversionStatus(aiConverter ?
+                Source.StageStatus.PENDING :
+                Source.StageStatus.SKIPPED);
+        source.setSummaryStatus(Source.StageStatus.PENDING);
+        source.setIndexingStatus(Source.StageStatus.PENDING);
+        source = sourceRepository.save(source);
+        try (var writer = sourceContentService.openWriter(source.getId())) {
+            content.accept(source, writer);
+        }
+
+        backgroundJobService.enqueueSourceJobs(
+                userId,
+                source.getNotebook()
+                        .getId(),
+                source.getId(),
+                aiConverter ?
+                        CONVERSION_STAGES :
+                        CONTENT_STAGES
+        );
+        return source;
+    }
+
+    public boolean convert(BackgroundJob job, String workerId) {
+        Optional<Source> sourceOptional = sourceRepository.findById(job.getSourceId());
+        if (sourceOptional.isEmpty()) {
+            logger.info("Source {} no longer exists, skipping conversion job {}", job.getSourceId(), job.getId());
+            return backgroundJobService.complete(job, workerId);
+        }
+
+        String content = formatContentAsMarkdown(sourceContentService.load(job.getSourceId()));
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!backgroundJobService.complete(job, workerId)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            sourceRepository.findById(job.getSourceId())
+                    .ifPresent(source -> {
+                        source.setPageOffsets(null);
+                        sourceRepository.save(source);
+                        sourceContentService.save(source.getId(), content);
+                        backgroundJobService.enqueueFollowUps(job, CONTENT_STAGES);
+                    });
+            return true;
+        }));
+    }
+
+    public boolean summarize(BackgroundJob job, String workerId) {
+        Optional<Source> sourceOptional = sourceRepository.findById(job.getSourceId());
+        if (sourceOptional.isEmpty()) {
+            logger.info("Source {} no longer exists, skipping summary job {}", job.getSourceId(), job.getId());
+            return backgroundJobService.complete(job, workerId);
+        }
+
+        String summary = sourceSummarizationService.summarize(sourceContentService.load(job.getSourceId()));
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!backgroundJobService.complete(job, workerId)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            sourceRepository.updateSummary(job.getSourceId(), summary);
+            return true;
+        }));
+    }
+
+    public String summarize(Source source) {
+        String summary = sourceSummarizationService.summarize(sourceContentService.load(source.getId()));
+        sourceRepository.updateSummary(source.getId(), summary);
+        source.setSummary(summary);
+        return summary;
+    }
+
+    public void updateStageStatus(BackgroundJob job, Source.StageStatus status) {
+        switch (job.getType()) {
+            case CONVERT_SOURCE -> sourceRepository.updateConversionStatus(job.getSourceId(), status);
+            case SUMMARIZE_SOURCE -> sourceRepository.updateSummaryStatus(job.getSourceId(), status);
+            case INDEX_SOURCE -> sourceRepository.updateIndexingStatus(job.getSourceId(), status);
+        }
+    }
+
+    private String formatContentAsMarkdown(String rawContent) {
+        String systemPrompt = """
+                You are an expert content processor. Your task is to convert the provided raw text from a webpage into a clean, well-structured Markdown format.
+                - Focus exclusively on the main article or primary content.
+                - Omit all headers, footers, navigation menus, sidebars, advertisements, and other boilerplate text.
+                - The output must be only the formatted Markdown content, without any introductory phrases like "Here is the markdown content:".
+                """;
+
+        try {
+            UserMessage userMessage = new UserMessage(rawContent);
+            Prompt prompt = new Prompt(List.of(new SystemMessage(systemPrompt), userMessage));
+            return chatModel.call(prompt)
+                    .getResult()
+                    .getOutput()
+                    .getText();
+        } catch (Exception e) {
+            return rawContent.replaceAll("(?m)^[ \t]*\r?\n", "")
+                    .trim();
+        }
+    }
+}
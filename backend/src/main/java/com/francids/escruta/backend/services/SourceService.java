@@ -1,40 +1,57 @@
 package com.francids.escruta.backend.services;
 
+import com.francids.escruta.backend.dtos.CursorPage;
+import com.francids.escruta.backend.dtos.PageCursor;
+import com.francids.escruta.backend.dtos.source.SourceContentInfoDTO;
 import com.francids.escruta.backend.dtos.source.SourceCreationDTO;
 import com.francids.escruta.backend.dtos.source.SourceFileCreationDTO;
 import com.francids.escruta.backend.dtos.source.SourceResponseDTO;
+import com.francids.escruta.backend.dtos.source.SourceStatusDTO;
 import com.francids.escruta.backend.dtos.source.SourceUpdateDTO;
 import com.francids.escruta.backend.dtos.source.SourceWithContentDTO;
 import com.francids.escruta.backend.entities.Notebook;
 import com.francids.escruta.backend.entities.Source;
+import com.francids.escruta.backend.exceptions.IndexingCapacityException;
 import com.francids.escruta.backend.mappers.SourceMapper;
 import com.francids.escruta.backend.repositories.NotebookRepository;
 import com.francids.escruta.backend.repositories.SourceRepository;
 import org.jsoup.Jsoup;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.prompt.Prompt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class SourceService {
+    private static final Logger logger = LoggerFactory.getLogger(SourceService.class);
+
     private final SourceRepository sourceRepository;
     private final NotebookRepository notebookRepository;
     private final SourceMapper sourceMapper;
     private final RetrievalService retrievalService;
-    private final ChatModel chatModel;
     private final FileTextExtractionService fileTextExtractionService;
-    private final AsyncVectorIndexingService asyncVectorIndexingService;
+    private final BackgroundJobService backgroundJobService;
+    private final SourceIngestionService sourceIngestionService;
+    private final SourceContentService sourceContentService;
+    private final UserService userService;
+
+    @Value("${pagination.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size}")
+    private int maxPageSize;
 
     private record WebContent(
             String title,
@@ -66,27 +83,6 @@ public class SourceService {
         }
     }
 
-    private String formatContentAsMarkdown(String rawContent) {
-        String systemPrompt = """
-                You are an expert content processor. Your task is to convert the provided raw text from a webpage into a clean, well-structured Markdown format.
-                - Focus exclusively on the main article or primary content.
-                - Omit all headers, footers, navigation menus, sidebars, advertisements, and other boilerplate text.
-                - The output must be only the formatted Markdown content, without any introductory phrases like "Here is the markdown content:".
-                """;
-
-        try {
-            UserMessage userMessage = new UserMessage(rawContent);
-            Prompt prompt = new Prompt(List.of(new SystemMessage(systemPrompt), userMessage));
-            return chatModel.call(prompt)
-                    .getResult()
-                    .getOutput()
-                    .getText();
-        } catch (Exception e) {
-            return rawContent.replaceAll("(?m)^[ \t]*\r?\n", "")
-                    .trim();
-        }
-    }
-
     private String generateDefaultTitle(String url) {
         try {
             String domain = new java.net.URI(url).getHost();
@@ -100,11 +96,25 @@ public class SourceService {
         return sourceRepository.existsByNotebookId(notebookId);
     }
 
-    public List<SourceResponseDTO> getSources(UUID notebookId) {
-        return sourceRepository.findByNotebookId(notebookId)
-                .stream()
-                .map(SourceResponseDTO::new)
-                .toList();
+    public CursorPage<SourceResponseDTO> getSources(UUID notebookId, String cursor, Integer limit) {
+        if (cursor == null && limit == null) {
+            return new CursorPage<>(sourceRepository.findResponsesByNotebookId(notebookId), null);
+        }
+
+        int pageSize = Math.clamp(Objects.requireNonNullElse(limit, defaultPageSize), 1, maxPageSize);
+        List<SourceResponseDTO> sources;
+        if (cursor == null) {
+            sources = sourceRepository.findResponsePageByNotebookId(notebookId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            sources = sourceRepository.findResponsePageByNotebookIdAfter(
+                    notebookId,
+                    pageCursor.updatedAt(),
+                    pageCursor.id(),
+                    Limit.of(pageSize + 1)
+            );
+        }
+        return CursorPage.of(sources, pageSize, source -> new PageCursor(source.updatedAt(), source.id()));
     }
 
     public SourceWithContentDTO getSource(UUID notebookId, UUID sourceId) {
@@ -112,40 +122,64 @@ public class SourceService {
         if (source.isEmpty() || !notebookRepository.existsById(notebookId)) {
             return null;
         }
-        return source.map(SourceWithContentDTO::new)
+        return source.map(value -> new SourceWithContentDTO(value, sourceContentService.load(value.getId())))
+                .orElse(null);
+    }
+
+    public SourceContentInfoDTO getSourceContentInfo(UUID notebookId, UUID sourceId) {
+        Optional<SourceContentInfoDTO> contentInfo = sourceRepository.findContentInfo(notebookId, sourceId);
+        if (contentInfo.isPresent() && contentInfo.get()
+                .contentHash() == null && sourceContentService.hasInlineContent()) {
+            sourceContentService.migrateInline(sourceId);
+            contentInfo = sourceRepository.findContentInfo(notebookId, sourceId);
+        }
+        return contentInfo.orElse(null);
+    }
+
+    public int alignSourceContentOffset(UUID sourceId, int offset) {
+        return sourceContentService.alignToCodePoint(sourceId, offset);
+    }
+
+    public void writeSourceContent(
+            UUID sourceId,
+            String contentHash,
+            int start,
+            int end,
+            Writer writer
+    ) throws IOException {
+        sourceContentService.write(sourceId, contentHash, start, end, writer);
+    }
+
+    public SourceStatusDTO getSourceStatus(UUID notebookId, UUID sourceId) {
+        return sourceRepository.findStatus(notebookId, sourceId)
                 .orElse(null);
     }
 
-    @Transactional
     public SourceWithContentDTO addSource(UUID notebookId, SourceCreationDTO newSourceDto, boolean aiConverter) {
         Optional<Notebook> notebookOptional = notebookRepository.findById(notebookId);
 
         try {
             WebContent webContent = fetchWebContent(newSourceDto.link());
-            String content;
-
-            if (aiConverter) {
-                content = formatContentAsMarkdown(webContent.content());
-            } else {
-                content = webContent.content();
-            }
 
             assert notebookOptional.isPresent();
-            Source source = sourceMapper.toSource(newSourceDto, notebookOptional.get(), content, aiConverter);
+            Source source = sourceMapper.toSource(newSourceDto, notebookOptional.get(), aiConverter);
             if (source.getTitle() == null || source.getTitle()
                     .trim()
                     .isEmpty()) {
                 source.setTitle(webContent.title());
             }
 
-            source = sourceRepository.save(source);
-
-            generateAndSetSummary(source);
-
-            asyncVectorIndexingService.indexSourceInVectorStore(notebookId, source, content);
+            source = sourceIngestionService.register(
+                    source,
+                    webContent.content(),
+                    userService.getUserId(),
+                    aiConverter
+            );
 
-            return new SourceWithContentDTO(source);
+            return new SourceWithContentDTO(source, webContent.content());
 
+        } catch (IndexingCapacityException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error while adding the source: " + e.getMessage(), e);
         }
@@ -166,15 +200,14 @@ public class SourceService {
 
     @Transactional
     public SourceResponseDTO deleteSource(UUID notebookId, UUID sourceId) {
-        Optional<Notebook> notebookOptional = notebookRepository.findById(notebookId);
-        Optional<Source> sourceOptional = sourceRepository.findById(sourceId);
+        Optional<SourceResponseDTO> sourceOptional = sourceRepository.findResponse(notebookId, sourceId);
 
-        if (notebookOptional.isPresent() && sourceOptional.isPresent()) {
-            Source sourceToDelete = sourceOptional.get();
+        if (sourceOptional.isPresent()) {
             try {
+                backgroundJobService.cancelSourceJobs(sourceId);
                 retrievalService.deleteIndexedSource(sourceId);
                 sourceRepository.deleteById(sourceId);
-                return new SourceResponseDTO(sourceToDelete);
+                return sourceOptional.get();
             } catch (Exception e) {
                 throw new RuntimeException("Error while deleting the source: " + e.getMessage(), e);
             }
@@ -182,8 +215,7 @@ public class SourceService {
         throw new SecurityException("User cannot delete this source.");
     }
 
-    @Transactional
-    public SourceWithContentDTO addSourceFromFile(
+    public SourceResponseDTO addSourceFromFile(
             UUID notebookId,
             SourceFileCreationDTO newSourceDto,
             MultipartFile file,
@@ -195,55 +227,25 @@ public class SourceService {
             throw new RuntimeException("Unsupported file type: " + file.getContentType());
         }
 
-        String content;
-        try {
-            content = fileTextExtractionService.extractTextFromFile(file);
-            if (content == null || content.trim()
-                    .isEmpty()) {
-                throw new RuntimeException("No text content could be extracted from the file");
-            }
-
-            if (aiConverter) {
-                content = formatContentAsMarkdown(content);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error processing file: " + e.getMessage(), e);
-        }
-
         assert notebookOptional.isPresent();
-        Source source = sourceMapper.toSource(newSourceDto, notebookOptional.get(), content, aiConverter);
-        source = sourceRepository.save(source);
-
-        generateAndSetSummary(source);
-
-        asyncVectorIndexingService.indexSourceInVectorStore(notebookId, source, content);
-
-        return new SourceWithContentDTO(source);
-    }
-
-    private void generateAndSetSummary(Source source) {
-        try {
-            Prompt prompt = getPrompt(source);
-            var response = chatModel.call(prompt);
-            String summary = response.getResult()
-                    .getOutput()
-                    .getText();
-
-            source.setSummary(summary);
-            sourceRepository.save(source);
-        } catch (Exception ignored) {
-        }
-    }
-
-    private static Prompt getPrompt(Source source) {
-        String systemPrompt = """
-                You are an expert content summarizer. Your task is to create a concise summary of the provided content.
-                The summary should be 2-3 sentences that capture the essential information and main points.
-                Focus on the key concepts, findings, or conclusions presented in the content.
-                """;
-
-        UserMessage userMessage = new UserMessage(source.getContent());
-        return new Prompt(List.of(new SystemMessage(systemPrompt), userMessage));
+        Source source = sourceMapper.toSource(newSourceDto, notebookOptional.get(), aiConverter);
+        source = sourceIngestionService.register(
+                source,
+                userService.getUserId(),
+                aiConverter,
+                (saved, writer) -> {
+                    try {
+                        var extracted = fileTextExtractionService.extractTextFromFile(file, writer);
+                        if (!aiConverter) {
+                            saved.setPageOffsets(extracted.pageOffsets());
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error processing file: " + e.getMessage(), e);
+                    }
+                }
+        );
+
+        return new SourceResponseDTO(source);
     }
 
     public String generateSummary(UUID notebookId, UUID sourceId) {
@@ -259,8 +261,12 @@ public class SourceService {
             throw new SecurityException("Source does not belong to this notebook.");
         }
 
-        generateAndSetSummary(source);
-        return source.getSummary();
+        try {
+            return sourceIngestionService.summarize(source);
+        } catch (Exception e) {
+            logger.warn("Failed to summarize source {}: {}", sourceId, e.getMessage());
+            throw new RuntimeException("Failed to summarize source: " + e.getMessage(), e);
+        }
     }
 
     public String getSummary(UUID notebookId, UUID sourceId) {
@@ -0,0 +1,174 @@
+package com.francids.escruta.backend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class SourceSummarizationService {
+    private static final Logger logger = LoggerFactory.getLogger(SourceSummarizationService.class);
+
+    private static final String SUMMARY_PROMPT = """
+            You are an expert content summarizer. Your task is to create a concise summary of the provided content.
+            The summary should be 2-3 sentences that capture the essential information and main points.
+            Focus on the key concepts, findings, or conclusions presented in the content.
+            """;
+
+    private static final String SECTION_PROMPT = """
+            You are an expert content summarizer. The provided text is one section of a larger document.
+            Summarize this section in a short paragraph that keeps its key concepts, findings and conclusions.
+            Do not add introductions or refer to "this section".
+            """;
+
+    private static final String COMBINE_PROMPT = """
+            You are an expert content summarizer. The provided text is a list of summaries of consecutive sections of one document.
+            Merge them into a single short paragraph that keeps the key concepts, findings and conclusions in order.
+            Do not add introductions or refer to "the summaries".
+            """;
+
+    private static final String REDUCE_PROMPT = """
+            You are an expert content summarizer. The provided text is a list of summaries of consecutive sections of one document.
+            Create a concise summary of the whole document from them.
+            The summary should be 2-3 sentences that capture the essential information and main points.
+            Focus on the key concepts, findings, or conclusions presented in the content.
+            """;
+
+    private final ChatModel chatModel;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor summarizationExecutor;
+
+    @Value("${summarization.section-tokens}")
+    private int sectionTokens;
+
+    @Value("${summarization.reduce-batch-size}")
+    private int reduceBatchSize;
+
+    public SourceSummarizationService(
+            ChatModel chatModel,
+            MeterRegistry meterRegistry,
+            @Qualifier("summarizationExecutor") ThreadPoolTaskExecutor summarizationExecutor
+    ) {
+        this.chatModel = chatModel;
+        this.meterRegistry = meterRegistry;
+        this.summarizationExecutor = summarizationExecutor;
+    }
+
+    private static final class StageUsage {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+    }
+
+    public String summarize(String content) {
+        Map<String, StageUsage> usage = new ConcurrentHashMap<>();
+        List<String> sections = split(content);
+
+        String summary;
+        if (sections.size() <= 1) {
+            summary = complete("single", SUMMARY_PROMPT, content, usage);
+        } else {
+            List<String> partials = summarizeAll("map", SECTION_PROMPT, sections, usage);
+            while (partials.size() > reduceBatchSize) {
+                List<String> groups = new ArrayList<>();
+                for (int start = 0; start < partials.size(); start += reduceBatchSize) {
+                    groups.add(joinSummaries(partials.subList(start, Math.min(start + reduceBatchSize,
+                            partials.size()))));
+                }
+                partials = summarizeAll("combine", COMBINE_PROMPT, groups, usage);
+            }
+            summary = complete("reduce", REDUCE_PROMPT, joinSummaries(partials), usage);
+        }
+
+        usage.forEach((stage, stageUsage) -> logger.debug(
+                "Summarization stage {}: {} calls, {} prompt tokens, {} completion tokens",
+                stage,
+                stageUsage.calls.sum(),
+                stageUsage.promptTokens.sum(),
+                stageUsage.completionTokens.sum()
+        ));
+        return summary;
+    }
+
+    private List<String> split(String content) {
+        var textSplitter = new TokenTextSplitter(sectionTokens, 350, 5, 10000, true);
+        return textSplitter.apply(List.of(new Document(content)))
+                .stream()
+                .map(Document::getText)
+                .toList();
+    }
+
+    private List<String> summarizeAll(String stage, String systemPrompt, List<String> texts,
+                                      Map<String, StageUsage> usage) {
+        List<CompletableFuture<String>> futures = texts.stream()
+                .map(text -> CompletableFuture.supplyAsync(
+                        () -> complete(stage, systemPrompt, text, usage),
+                        summarizationExecutor
+                ))
+                .toList();
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Failed to summarize " + stage + " stage: " + e.getCause()
+                    .getMessage(), e.getCause());
+        }
+    }
+
+    private String complete(String stage, String systemPrompt, String text, Map<String, StageUsage> usage) {
+        Prompt prompt = new Prompt(List.of(new SystemMessage(systemPrompt), new UserMessage(text)));
+        ChatResponse response = chatModel.call(prompt);
+        recordUsage(stage, response, usage);
+        return response.getResult()
+                .getOutput()
+                .getText();
+    }
+
+    private void recordUsage(String stage, ChatResponse response, Map<String, StageUsage> usage) {
+        StageUsage stageUsage = usage.computeIfAbsent(stage, key -> new StageUsage());
+        stageUsage.calls.increment();
+
+        Usage responseUsage = response.getMetadata()
+                .getUsage();
+        if (responseUsage == null) {
+            return;
+        }
+        long promptTokens = responseUsage.getPromptTokens() != null ?
+                responseUsage.getPromptTokens() :
+                0;
+        long completionTokens = responseUsage.getCompletionTokens() != null ?
+                responseUsage.getCompletionTokens() :
+                0;
+        stageUsage.promptTokens.add(promptTokens);
+        stageUsage.completionTokens.add(completionTokens);
+        meterRegistry.counter("source.summarization.tokens", "stage", stage, "type", "prompt")
+                .increment(promptTokens);
+        meterRegistry.counter("source.summarization.tokens", "stage", stage, "type", "completion")
+                .increment(completionTokens);
+    }
+
+    private static String joinSummaries(List<String> summaries) {
+        return String.join("\n\n", summaries);
+    }
+}
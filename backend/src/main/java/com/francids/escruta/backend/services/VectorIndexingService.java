@@ -0,0 +1,116 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.entities.BackgroundJob;
+import com.francids.escruta.backend.entities.Source;
+import com.francids.escruta.backend.repositories.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class VectorIndexingService {
+    private static final Logger logger = LoggerFactory.getLogger(VectorIndexingService.class);
+
+    private final RetrievalService retrievalService;
+    private final SourceRepository sourceRepository;
+    private final SourceContentService sourceContentService;
+    private final BackgroundJobService backgroundJobService;
+
+    @Value("${indexing.batch-size}")
+    private int batchSize;
+
+    public void indexSource(BackgroundJob job, String workerId) {
+        Optional<Source> sourceOptional = sourceRepository.findById(job.getSourceId());
+        if (sourceOptional.isEmpty()) {
+            logger.info("Source {} no longer exists, skipping indexing job {}", job.getSourceId(), job.getId());
+            return;
+        }
+
+        Source source = sourceOptional.get();
+        var textSplitter = new TokenTextSplitter(500, 100, 5, 10000, true);
+        String content = sourceContentService.load(source.getId());
+        List<Document> chunks = textSplitter.apply(List.of(new Document(content)));
+        List<Integer> pages = pageNumbers(content, chunks, source.getPageOffsets());
+
+        for (int start = job.getCheckpoint(); start < chunks.size(); start += batchSize) {
+            if (!backgroundJobService.checkpoint(job, workerId, start)) {
+                stop(job, source);
+                return;
+            }
+
+            int end = Math.min(start + batchSize, chunks.size());
+            try {
+                retrievalService.indexSourceChunks(
+                        job.getNotebookId(),
+                        source,
+                        chunks.subList(start, end),
+                        pages != null ?
+                                pages.subList(start, end) :
+                                null,
+                        start
+                );
+            } catch (Exception e) {
+                throw new RuntimeException(
+                        "Failed to index chunks " + start + "-" + (end - 1) + " of " + chunks.size() + ": " +
+                                e.getMessage(), e
+                );
+            }
+        }
+        if (!backgroundJobService.checkpoint(job, workerId, chunks.size())) {
+            stop(job, source);
+            return;
+        }
+
+        logger.info("Indexed {} chunks of source {}", chunks.size(), source.getId());
+    }
+
+    // Chunks come out of the splitter in content order, so each one is looked up after the end of the previous one.
+    private static List<Integer> pageNumbers(String content, List<Document> chunks, int[] pageOffsets) {
+        if (pageOffsets == null || pageOffsets.length == 0) {
+            return null;
+        }
+
+        List<Integer> pages = new ArrayList<>(chunks.size());
+        int searchFrom = 0;
+        for (Document chunk : chunks) {
+            String text = chunk.getText();
+            int offset = text != null ?
+                    content.indexOf(text, searchFrom) :
+                    -1;
+            if (offset < 0) {
+                pages.add(null);
+                continue;
+            }
+            searchFrom = offset + text.length();
+
+            int page = Arrays.binarySearch(pageOffsets, offset);
+            if (page < 0) {
+                page = -page - 2;
+            }
+            while (page + 1 < pageOffsets.length && pageOffsets[page + 1] <= offset) {
+                page++;
+            }
+            pages.add(Math.max(page, 0) + 1);
+        }
+        return pages;
+    }
+
+    private void stop(BackgroundJob job, Source source) {
+        if (!backgroundJobService.isCancelled(job)) {
+            throw new IllegalStateException("Lost the lease on indexing job " + job.getId());
+        }
+
+        retrievalService.deleteIndexedSource(source.getId());
+        logger.info("Indexing job {} was cancelled, removed the vectors of source {}", job.getId(), source.getId());
+    }
+}
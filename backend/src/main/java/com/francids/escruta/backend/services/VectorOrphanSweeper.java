@@ -0,0 +1,85 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.repositories.VectorChunkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+public class VectorOrphanSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(VectorOrphanSweeper.class);
+
+    private final VectorChunkRepository vectorChunkRepository;
+    private final Counter reclaimed;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration interval;
+
+    private long nextPassAt;
+    private long passStartedAt;
+    private int passDeleted;
+    private int passBatches;
+
+    public VectorOrphanSweeper(
+            VectorChunkRepository vectorChunkRepository,
+            MeterRegistry meterRegistry,
+            @Value("${vector-store.orphan-sweep.enabled}") boolean enabled,
+            @Value("${vector-store.orphan-sweep.batch-size}") int batchSize,
+            @Value("${vector-store.orphan-sweep.interval}") Duration interval
+    ) {
+        this.vectorChunkRepository = vectorChunkRepository;
+        this.reclaimed = meterRegistry.counter("vector.orphans.reclaimed");
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.nextPassAt = System.currentTimeMillis() + interval.toMillis();
+    }
+
+    // The scheduler thread is shared with the job worker and the chat memory flush, so each tick deletes a single
+    // batch and returns. The cursor in sweep_cursors carries the pass over to the next tick.
+    @Scheduled(
+            initialDelayString = "${vector-store.orphan-sweep.batch-interval}",
+            fixedDelayString = "${vector-store.orphan-sweep.batch-interval}"
+    )
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        if (!enabled || now < nextPassAt) {
+            return;
+        }
+        if (passBatches == 0) {
+            passStartedAt = now;
+        }
+
+        VectorChunkRepository.OrphanSweepBatch batch;
+        try {
+            batch = vectorChunkRepository.deleteOrphans(batchSize);
+        } catch (Exception e) {
+            logger.warn("Failed to sweep orphaned vectors: {}", e.getMessage());
+            return;
+        }
+        passBatches++;
+        passDeleted += batch.deleted();
+        reclaimed.increment(batch.deleted());
+        if (!batch.finished()) {
+            return;
+        }
+
+        if (passDeleted > 0) {
+            logger.info(
+                    "Reclaimed {} orphaned vectors in {} batches ({} ms)",
+                    passDeleted,
+                    passBatches,
+                    System.currentTimeMillis() - passStartedAt
+            );
+        }
+        passDeleted = 0;
+        passBatches = 0;
+        nextPassAt = System.currentTimeMillis() + interval.toMillis();
+    }
+}
@@ -0,0 +1,175 @@
+package com.francids.escruta.backend.repositories;
+
+import com.francids.escruta.backend.dtos.PageCursor;
+import com.francids.escruta.backend.dtos.note.NoteResponseDTO;
+import com.francids.escruta.backend.dtos.source.SourceResponseDTO;
+import com.francids.escruta.backend.entities.Note;
+import com.francids.escruta.backend.entities.Notebook;
+import com.francids.escruta.backend.entities.Source;
+import com.francids.escruta.backend.entities.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.francids.escruta.backend.repositories.SourceRepositoryTests$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SourceRepositoryTests {
+    private static final int SOURCES = 200;
+    private static final int PAGE_SIZE = 7;
+    private static final String LARGE_CONTENT = "x".repeat(256 * 1024);
+    private static final Pattern LARGE_COLUMN = Pattern.compile("\\b(content|summary)\\b");
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    private Notebook notebook;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setFullName("Test User");
+        user.setEmail("projection-test@escruta.local");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        notebook = new Notebook();
+        notebook.setUser(user);
+        notebook.setTitle("Large notebook");
+        entityManager.persist(notebook);
+
+        Source firstSource = null;
+        for (int i = 0; i < SOURCES; i++) {
+            Source source = new Source();
+            source.setNotebook(notebook);
+            source.setTitle("Source " + i);
+            source.setSummary(LARGE_CONTENT);
+            entityManager.persist(source);
+            if (firstSource == null) {
+                firstSource = source;
+            }
+        }
+
+        Note note = new Note();
+        note.setNotebook(notebook);
+        note.setSource(firstSource);
+        note.setTitle("Note");
+        note.setContent(LARGE_CONTENT);
+        entityManager.persist(note);
+
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.statements.clear();
+    }
+
+    @Test
+    void listingSourcesNeverSelectsContent() {
+        List<SourceResponseDTO> sources = sourceRepository.findResponsesByNotebookId(notebook.getId());
+
+        assertEquals(SOURCES, sources.size());
+        assertNoContentSelected();
+    }
+
+    @Test
+    void findingSingleSourceResponseNeverSelectsContent() {
+        SourceResponseDTO first = sourceRepository.findResponsesByNotebookId(notebook.getId())
+                .getFirst();
+
+        assertEquals(first, sourceRepository.findResponse(notebook.getId(), first.id())
+                .orElseThrow());
+        assertNoContentSelected();
+    }
+
+    @Test
+    void listingNotesNeverSelectsNoteOrSourceContent() {
+        List<NoteResponseDTO> notes = noteRepository.findResponsesByNotebookId(notebook.getId());
+
+        assertEquals(1, notes.size());
+        assertNoContentSelected();
+    }
+
+    @Test
+    void pagingAcrossEqualUpdatedAtHasNoDuplicatesOrGaps() {
+        entityManager.getEntityManager()
+                .createNativeQuery("""
+                        UPDATE sources
+                        SET updated_at = CASE WHEN title < 'Source 5'
+                            THEN CAST(?1 AS timestamp)
+                            ELSE CAST(?2 AS timestamp)
+                        END
+                        WHERE notebook_id = ?3
+                        """)
+                .setParameter(1, Timestamp.from(Instant.parse("2026-01-01T00:00:00.123456Z")))
+                .setParameter(2, Timestamp.from(Instant.parse("2026-01-02T00:00:00.654321Z")))
+                .setParameter(3, notebook.getId())
+                .executeUpdate();
+
+        List<UUID> paged = new ArrayList<>();
+        List<SourceResponseDTO> page = sourceRepository.findResponsePageByNotebookId(
+                notebook.getId(),
+                Limit.of(PAGE_SIZE)
+        );
+        while (!page.isEmpty()) {
+            page.forEach(source -> paged.add(source.id()));
+            SourceResponseDTO last = page.getLast();
+            PageCursor cursor = PageCursor.decode(new PageCursor(last.updatedAt(), last.id()).encode());
+            page = sourceRepository.findResponsePageByNotebookIdAfter(
+                    notebook.getId(),
+                    cursor.updatedAt(),
+                    cursor.id(),
+                    Limit.of(PAGE_SIZE)
+            );
+        }
+
+        assertEquals(SOURCES, paged.size());
+        assertEquals(Set.copyOf(paged), sourceRepository.findResponsesByNotebookId(notebook.getId())
+                .stream()
+                .map(SourceResponseDTO::id)
+                .collect(Collectors.toSet()));
+    }
+
+    private static void assertNoContentSelected() {
+        assertFalse(RecordingStatementInspector.statements.isEmpty());
+        for (String sql : RecordingStatementInspector.statements) {
+            String selectList = sql.toLowerCase(Locale.ROOT)
+                    .split(" from ", 2)[0];
+            assertFalse(LARGE_COLUMN.matcher(selectList)
+                    .find(), () -> "Selected a large column: " + sql);
+        }
+    }
+}
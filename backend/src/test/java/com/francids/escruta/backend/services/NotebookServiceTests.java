@@ -0,0 +1,89 @@
+package com.francids.escruta.backend.services;
+
+import com.francids.escruta.backend.dtos.notebook.NotebookWithDetailsDTO;
+import com.francids.escruta.backend.entities.Note;
+import com.francids.escruta.backend.entities.Notebook;
+import com.francids.escruta.backend.entities.Source;
+import com.francids.escruta.backend.entities.User;
+import com.francids.escruta.backend.mappers.NoteMapper;
+import com.francids.escruta.backend.mappers.NotebookMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotebookService.class, NoteService.class, NotebookMapper.class, NoteMapper.class})
+class NotebookServiceTests {
+    private static final long DETAILS_STATEMENTS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NotebookService notebookService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private BackgroundJobService backgroundJobService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25, 100})
+    void notebookDetailsUseAFixedNumberOfStatements(int children) {
+        User user = new User();
+        user.setFullName("Test User");
+        user.setEmail("details-test-" + children + "@escruta.local");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        Notebook notebook = new Notebook();
+        notebook.setUser(user);
+        notebook.setTitle("Notebook");
+        entityManager.persist(notebook);
+
+        for (int i = 0; i < children; i++) {
+            Source source = new Source();
+            source.setNotebook(notebook);
+            source.setTitle("Source " + i);
+            entityManager.persist(source);
+
+            Note note = new Note();
+            note.setNotebook(notebook);
+            note.setSource(source);
+            note.setTitle("Note " + i);
+            entityManager.persist(note);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        NotebookWithDetailsDTO details = notebookService.getUserNotebookWithDetails(notebook.getId())
+                .orElseThrow();
+
+        assertEquals(children, details.notes()
+                .size());
+        assertEquals(children, details.sources()
+                .size());
+        assertEquals(user.getEmail(), details.user()
+                .getEmail());
+        assertEquals(DETAILS_STATEMENTS, statistics.getPrepareStatementCount());
+    }
+}